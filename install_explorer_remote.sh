@@ -16,6 +16,11 @@ cd "$ms_path_explorer_repo" \
     && ./mvnw clean package -U -DskipTests \
     && cd ./target \
     && mkdir -p "$ms_path_explorer_dir" \
-    && mv "$ms_path_explorer_jar_name" "$ms_path_explorer_dir/"
+    && mv "$ms_path_explorer_jar_name" "$ms_path_explorer_dir/" \
+    && cp ../mapstruct-ipc-server.sh "$ms_path_explorer_dir/"
+
+# record the AOT cache for fast startup (no-op with a warning on JDK < 25)
+"$ms_path_explorer_dir/mapstruct-ipc-server.sh" --train \
+    || echo "AOT cache training failed, the server will start without it"
 
 echo "$ms_path_explorer_jar_name successfully installed to $ms_path_explorer_dir"
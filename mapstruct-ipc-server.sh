@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Launcher for the MapStruct IPC server that uses the JDK 25+ AOT cache when one has been trained.
+#
+# Usage:
+#   mapstruct-ipc-server.sh --train                       record mapstruct-path-explorer.aot next to the jar
+#   mapstruct-ipc-server.sh [--cp <app cp>] <socket> [server options...]
+#
+# The AOT cache is recorded with the jar alone on the classpath; the application classpath is appended
+# after the jar, so the cache stays valid (the training classpath must be a prefix of the runtime one).
+
+dir="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+jar="${MAPSTRUCT_EXPLORER_JAR:-$dir/mapstruct-path-explorer.jar}"
+aot_cache="${MAPSTRUCT_EXPLORER_AOT:-${jar%.jar}.aot}"
+java_cmd="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+java_feature_version() {
+    "$java_cmd" -version 2>&1 | sed -n 's/.* version "\([0-9]*\).*/\1/p' | head -1
+}
+
+if [ "$1" = "--train" ]; then
+    shift
+    if [ "$(java_feature_version)" -lt 25 ] 2>/dev/null; then
+        echo "AOT cache training needs JDK 25+, skipping (server will start without a cache)" >&2
+        exit 0
+    fi
+    rm -f "$aot_cache"
+    exec "$java_cmd" -XX:AOTCacheOutput="$aot_cache" -cp "$jar" com.dsm.mapstruct.IpcServer --train "$@"
+fi
+
+classpath="$jar"
+if [ "$1" = "--cp" ]; then
+    classpath="$jar:$2"
+    shift 2
+fi
+
+aot_opts=()
+if [ -f "$aot_cache" ]; then
+    # a stale or mismatched cache is ignored by the JVM, and an older JDK ignores the option entirely
+    aot_opts=(-XX:+IgnoreUnrecognizedVMOptions -XX:AOTCache="$aot_cache")
+fi
+
+exec "$java_cmd" "${aot_opts[@]}" -cp "$classpath" com.dsm.mapstruct.IpcServer "$@"
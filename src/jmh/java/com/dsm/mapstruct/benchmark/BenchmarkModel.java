@@ -0,0 +1,129 @@
+package com.dsm.mapstruct.benchmark;
+
+import java.util.List;
+
+/**
+ * Fixture types for the navigation benchmarks.
+ *
+ * Each {@code WideN} class has N members: {@code next} (a self reference, so a path can be any number of hops deep),
+ * {@code items} (a list of itself, for the {@code first}/{@code last} accessors) and N - 2 string fields whose names
+ * cycle through a few stems, so prefixes of different lengths match different fractions of the members.
+ */
+public final class BenchmarkModel {
+
+    private BenchmarkModel() {
+    }
+
+    public static Class<?> wide(int members) {
+        return switch (members) {
+            case 8 -> Wide8.class;
+            case 64 -> Wide64.class;
+            case 256 -> Wide256.class;
+            default -> throw new IllegalArgumentException("no fixture with " + members + " members");
+        };
+    }
+
+    public static class Wide8 {
+        public Wide8 next;
+        public List<Wide8> items;
+        public String amount000, balance001, code002, date003, email004, flag005;
+
+        public Wide8 getNext() {
+            return next;
+        }
+
+        public void setNext(Wide8 next) {
+            this.next = next;
+        }
+
+        public List<Wide8> getItems() {
+            return items;
+        }
+
+        public void setItems(List<Wide8> items) {
+            this.items = items;
+        }
+    }
+
+    public static class Wide64 {
+        public Wide64 next;
+        public List<Wide64> items;
+        public String amount000, balance001, code002, date003, email004, flag005, group006, handle007;
+        public String amount008, balance009, code010, date011, email012, flag013, group014, handle015;
+        public String amount016, balance017, code018, date019, email020, flag021, group022, handle023;
+        public String amount024, balance025, code026, date027, email028, flag029, group030, handle031;
+        public String amount032, balance033, code034, date035, email036, flag037, group038, handle039;
+        public String amount040, balance041, code042, date043, email044, flag045, group046, handle047;
+        public String amount048, balance049, code050, date051, email052, flag053, group054, handle055;
+        public String amount056, balance057, code058, date059, email060, flag061;
+
+        public Wide64 getNext() {
+            return next;
+        }
+
+        public void setNext(Wide64 next) {
+            this.next = next;
+        }
+
+        public List<Wide64> getItems() {
+            return items;
+        }
+
+        public void setItems(List<Wide64> items) {
+            this.items = items;
+        }
+    }
+
+    public static class Wide256 {
+        public Wide256 next;
+        public List<Wide256> items;
+        public String amount000, balance001, code002, date003, email004, flag005, group006, handle007;
+        public String amount008, balance009, code010, date011, email012, flag013, group014, handle015;
+        public String amount016, balance017, code018, date019, email020, flag021, group022, handle023;
+        public String amount024, balance025, code026, date027, email028, flag029, group030, handle031;
+        public String amount032, balance033, code034, date035, email036, flag037, group038, handle039;
+        public String amount040, balance041, code042, date043, email044, flag045, group046, handle047;
+        public String amount048, balance049, code050, date051, email052, flag053, group054, handle055;
+        public String amount056, balance057, code058, date059, email060, flag061, group062, handle063;
+        public String amount064, balance065, code066, date067, email068, flag069, group070, handle071;
+        public String amount072, balance073, code074, date075, email076, flag077, group078, handle079;
+        public String amount080, balance081, code082, date083, email084, flag085, group086, handle087;
+        public String amount088, balance089, code090, date091, email092, flag093, group094, handle095;
+        public String amount096, balance097, code098, date099, email100, flag101, group102, handle103;
+        public String amount104, balance105, code106, date107, email108, flag109, group110, handle111;
+        public String amount112, balance113, code114, date115, email116, flag117, group118, handle119;
+        public String amount120, balance121, code122, date123, email124, flag125, group126, handle127;
+        public String amount128, balance129, code130, date131, email132, flag133, group134, handle135;
+        public String amount136, balance137, code138, date139, email140, flag141, group142, handle143;
+        public String amount144, balance145, code146, date147, email148, flag149, group150, handle151;
+        public String amount152, balance153, code154, date155, email156, flag157, group158, handle159;
+        public String amount160, balance161, code162, date163, email164, flag165, group166, handle167;
+        public String amount168, balance169, code170, date171, email172, flag173, group174, handle175;
+        public String amount176, balance177, code178, date179, email180, flag181, group182, handle183;
+        public String amount184, balance185, code186, date187, email188, flag189, group190, handle191;
+        public String amount192, balance193, code194, date195, email196, flag197, group198, handle199;
+        public String amount200, balance201, code202, date203, email204, flag205, group206, handle207;
+        public String amount208, balance209, code210, date211, email212, flag213, group214, handle215;
+        public String amount216, balance217, code218, date219, email220, flag221, group222, handle223;
+        public String amount224, balance225, code226, date227, email228, flag229, group230, handle231;
+        public String amount232, balance233, code234, date235, email236, flag237, group238, handle239;
+        public String amount240, balance241, code242, date243, email244, flag245, group246, handle247;
+        public String amount248, balance249, code250, date251, email252, flag253;
+
+        public Wide256 getNext() {
+            return next;
+        }
+
+        public void setNext(Wide256 next) {
+            this.next = next;
+        }
+
+        public List<Wide256> getItems() {
+            return items;
+        }
+
+        public void setItems(List<Wide256> items) {
+            this.items = items;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.dsm.mapstruct.benchmark;
+
+import com.dsm.mapstruct.adapter.api.ipc.IpcRequestHandler;
+import com.dsm.mapstruct.adapter.api.ipc.IpcSession;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Memory footprint of the server caches over a large real-world classpath, for sizing daemon heaps and cache budgets.
+ *
+ * The jars (by default every jar under {@code ~/.m2/repository}, or an explicit {@code --classpath}) are put on the
+ * classpath of a child JVM, which resolves their public types without introspecting them, then warms one
+ * {@code explore_path} completion per type through the real {@link IpcRequestHandler}. Heap used after a full GC
+ * is taken before and after warming; the difference is the retained weight of the warmed state. It includes the
+ * reflection data the JDK soft-caches on the introspected classes, which a daemon carries as well. Classes themselves
+ * live in metaspace, reported separately. GC pauses during warming come from the collectors' notifications.
+ *
+ * Options: --m2=~/.m2/repository | --classpath=[jars] --max-types=5000 --heap=1g --jvm-args="[extra child JVM options]"
+ * --out=target/cache-footprint.json
+ */
+public class CacheFootprintHarness {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String PROBE = "--probe";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = HarnessSupport.parseOptions(args);
+        if (options.containsKey(PROBE.substring(2))) {
+            probe(options);
+        } else {
+            launch(options);
+        }
+    }
+
+    /**
+     * Parent: collects the jars and runs the measurement in a child JVM that has them on its classpath.
+     */
+    private static void launch(Map<String, String> options) throws Exception {
+        List<String> jars = options.containsKey("classpath")
+                ? Arrays.asList(options.get("classpath").split(File.pathSeparator))
+                : findJars(Path.of(options.getOrDefault("m2", System.getProperty("user.home") + "/.m2/repository")));
+        if (jars.isEmpty()) {
+            System.err.println("No jars found, pass --m2=<repository> or --classpath=<jars>");
+            System.exit(1);
+        }
+        Path jarList = Files.createTempFile("mapstruct-footprint", ".jars");
+        Files.write(jarList, jars);
+
+        List<String> command = new ArrayList<>();
+        command.add("java");
+        command.add("-Xmx" + options.getOrDefault("heap", "1g"));
+        if (options.containsKey("jvm-args")) {
+            command.addAll(Arrays.asList(options.get("jvm-args").trim().split("\\s+")));
+        }
+        command.addAll(List.of("-cp", System.getProperty("java.class.path") + File.pathSeparator + String.join(File.pathSeparator, jars),
+                CacheFootprintHarness.class.getName(), PROBE,
+                "--jars=" + jarList, "--max-types=" + options.getOrDefault("max-types", "5000")));
+        Process child = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        String json = new String(child.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        int exit = child.waitFor();
+        Files.deleteIfExists(jarList);
+        if (exit != 0) {
+            System.err.println("Footprint probe failed with exit code " + exit);
+            System.exit(exit);
+        }
+        System.out.println(json);
+        Files.writeString(Path.of(options.getOrDefault("out", "target/cache-footprint.json")), json);
+    }
+
+    private static List<String> findJars(Path repository) throws IOException {
+        if (!Files.isDirectory(repository)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(repository)) {
+            // one version per artifact directory is enough, and avoids duplicate classes on the classpath
+            return files.filter(file -> file.toString().endsWith(".jar"))
+                    .filter(file -> !file.getFileName().toString().endsWith("-sources.jar")
+                            && !file.getFileName().toString().endsWith("-javadoc.jar"))
+                    .collect(Collectors.toMap(file -> file.getParent().getParent(), Path::toString, (first, second) -> first))
+                    .values().stream().sorted().toList();
+        }
+    }
+
+    /**
+     * Child: resolves the types, measures the heap, warms the caches and measures again.
+     */
+    private static void probe(Map<String, String> options) throws Exception {
+        // static initializers of the libraries may print, only the result goes to stdout
+        PrintStream out = System.out;
+        System.setOut(System.err);
+        List<String> jars = Files.readAllLines(Path.of(options.get("jars")));
+        int maxTypes = Integer.parseInt(options.get("max-types"));
+
+        ClassLoader loader = CacheFootprintHarness.class.getClassLoader();
+        List<Class<?>> types = new ArrayList<>();
+        for (String name : classNames(jars)) {
+            if (types.size() >= maxTypes) {
+                break;
+            }
+            try {
+                Class<?> type = Class.forName(name, false, loader);
+                if (Modifier.isPublic(type.getModifiers()) && !type.isAnnotation() && !type.isSynthetic()) {
+                    types.add(type);
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                // missing optional dependency of the library, skip the type
+            }
+        }
+
+        IpcRequestHandler handler = new IpcRequestHandler();
+        IpcSession session = new IpcSession();
+        handler.handle("{\"id\":\"0\",\"method\":\"ping\",\"params\":{}}", session);
+        long heapBefore = usedHeapAfterGc();
+        long metaspaceBefore = metaspaceUsed();
+
+        GcRecorder gc = GcRecorder.start();
+        long start = System.nanoTime();
+        int failed = 0;
+        for (int i = 0; i < types.size(); i++) {
+            String request = "{\"id\":\"" + i + "\",\"method\":\"explore_path\",\"params\":{\"sources\":[{\"name\":\"s\",\"type\":\""
+                    + types.get(i).getName() + "\"}],\"pathExpression\":\"s.\",\"isEnum\":false}}";
+            String response = new String(handler.handle(request, session).payload(), StandardCharsets.UTF_8);
+            if (!response.contains("\"result\"")) {
+                failed++;
+            }
+        }
+        long warmNanos = System.nanoTime() - start;
+        JsonObject pauses = gc.stop();
+
+        long heapAfter = usedHeapAfterGc();
+        long metaspaceAfter = metaspaceUsed();
+        JsonObject stats = handler.statsSnapshot();
+        long cachedClasses = stats.getAsJsonObject("memberTables").get("entries").getAsLong();
+        long retained = heapAfter - heapBefore;
+
+        JsonObject result = new JsonObject();
+        result.addProperty("javaVersion", System.getProperty("java.version"));
+        result.addProperty("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        result.addProperty("jars", jars.size());
+        result.addProperty("types", types.size());
+        result.addProperty("failedCompletions", failed);
+        result.addProperty("warmMillis", warmNanos / 1_000_000);
+        result.addProperty("heapBeforeBytes", heapBefore);
+        result.addProperty("heapAfterBytes", heapAfter);
+        result.addProperty("retainedBytes", retained);
+        result.addProperty("cachedClasses", cachedClasses);
+        result.addProperty("retainedBytesPerCachedClass", cachedClasses == 0 ? 0 : retained / cachedClasses);
+        result.addProperty("metaspaceGrowthBytes", metaspaceAfter - metaspaceBefore);
+        result.add("memberTables", stats.get("memberTables"));
+        result.add("responseCache", stats.get("responseCache"));
+        result.add("gcDuringWarm", pauses);
+        out.println(GSON.toJson(result));
+    }
+
+    /**
+     * Top-level and nested class names of the jars, without anonymous and local classes.
+     */
+    private static TreeSet<String> classNames(List<String> jars) {
+        TreeSet<String> names = new TreeSet<>();
+        for (String jar : jars) {
+            try (JarFile file = new JarFile(jar)) {
+                file.stream()
+                        .map(JarEntry::getName)
+                        .filter(name -> name.endsWith(".class") && !name.startsWith("META-INF/")
+                                && !name.endsWith("module-info.class") && !name.endsWith("package-info.class"))
+                        .map(name -> name.substring(0, name.length() - ".class".length()).replace('/', '.'))
+                        .filter(name -> !name.matches(".*\\$\\d.*"))
+                        .forEach(names::add);
+            } catch (IOException e) {
+                System.err.println("Skipping unreadable jar " + jar + ": " + e.getMessage());
+            }
+        }
+        return names;
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        // a few rounds, so objects freed by finalization and reference processing are gone as well
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long metaspaceUsed() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getName().equals("Metaspace"))
+                .mapToLong(pool -> pool.getUsage().getUsed())
+                .findFirst()
+                .orElse(-1);
+    }
+
+    /**
+     * Collects the pause of every collection while warming, per collector.
+     */
+    private static final class GcRecorder {
+
+        private final ConcurrentLinkedQueue<long[]> collections = new ConcurrentLinkedQueue<>();
+        private final Map<String, Integer> collectorIndex = new HashMap<>();
+        private final List<String> collectorNames = new ArrayList<>();
+        private final NotificationListener listener = (notification, handback) -> {
+            if (notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                collections.add(new long[]{collectorIndex.get(info.getGcName()), info.getGcInfo().getDuration()});
+            }
+        };
+
+        static GcRecorder start() {
+            GcRecorder recorder = new GcRecorder();
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                recorder.collectorIndex.put(collector.getName(), recorder.collectorNames.size());
+                recorder.collectorNames.add(collector.getName());
+                ((NotificationEmitter) collector).addNotificationListener(recorder.listener, null, null);
+            }
+            return recorder;
+        }
+
+        /**
+         * Stops listening and summarizes the pauses: count, total and max milliseconds per collector.
+         */
+        JsonObject stop() throws Exception {
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) collector).removeNotificationListener(listener);
+            }
+            JsonObject summary = new JsonObject();
+            for (int i = 0; i < collectorNames.size(); i++) {
+                int index = i;
+                long[] durations = collections.stream().filter(c -> c[0] == index).mapToLong(c -> c[1]).sorted().toArray();
+                JsonObject collector = new JsonObject();
+                collector.addProperty("count", durations.length);
+                collector.addProperty("totalMillis", Arrays.stream(durations).sum());
+                collector.addProperty("maxMillis", durations.length == 0 ? 0 : durations[durations.length - 1]);
+                summary.add(collectorNames.get(i), collector);
+            }
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.dsm.mapstruct.benchmark;
+
+import com.dsm.mapstruct.core.model.CompletionResult;
+import com.dsm.mapstruct.core.usecase.helper.PathNavigator;
+import com.dsm.mapstruct.testdata.TypeGraphGenerator;
+import com.dsm.mapstruct.testdata.TypeGraphGenerator.Graph;
+import com.dsm.mapstruct.testdata.TypeGraphGenerator.Spec;
+import com.dsm.mapstruct.testdata.TypeGraphGenerator.Walk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Navigation over a generated type graph (see {@link TypeGraphGenerator}): each invocation follows the next of a
+ * fixed set of random walks, so the working set spans the whole graph instead of a few hot classes.
+ *
+ * - Warm: one navigator for the trial; once every class was visited, all member tables are cached.
+ * - Cold: a fresh navigator per invocation, every class on the walk is analysed again.
+ *
+ * Generating the 10k-class graph takes about a minute per fork, before the warmup starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class GraphNavigationBenchmark {
+
+    private static final int WALKS = 4096;
+
+    @Param({"1000", "10000"})
+    int classes;
+
+    @Param({"4", "10"})
+    int hops;
+
+    @Param({"0.1"})
+    double cycleRatio;
+
+    Class<?>[] roots;
+    String[] paths;
+    int next;
+    PathNavigator warmNavigator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int depth = 10;
+        Graph graph = TypeGraphGenerator.generate(Spec.of(classes / depth, depth).withCycleRatio(cycleRatio));
+        roots = new Class<?>[WALKS];
+        paths = new String[WALKS];
+        for (int i = 0; i < WALKS; i++) {
+            int start = i % graph.spec().width();
+            Walk walk = graph.walk(start, hops, i);
+            roots[i] = graph.load(start);
+            paths[i] = walk.path();
+        }
+        warmNavigator = new PathNavigator();
+    }
+
+    /**
+     * Fresh navigator for every invocation, so no member table is cached.
+     */
+    @State(Scope.Thread)
+    public static class ColdNavigator {
+
+        PathNavigator navigator;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            navigator = new PathNavigator();
+        }
+    }
+
+    @Benchmark
+    public CompletionResult walkWarm() {
+        int walk = next++ & (WALKS - 1);
+        return warmNavigator.navigate(roots[walk], paths[walk]);
+    }
+
+    @Benchmark
+    public CompletionResult walkCold(ColdNavigator cold) {
+        int walk = next++ & (WALKS - 1);
+        return cold.navigator.navigate(roots[walk], paths[walk]);
+    }
+}
@@ -0,0 +1,106 @@
+package com.dsm.mapstruct.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared pieces of the command-line harnesses (load test, trace replay, startup and footprint measurements).
+ * Waiting for a server socket lives in {@code testdata.ServerSockets}, which the tests use as well.
+ */
+final class HarnessSupport {
+
+    private HarnessSupport() {
+    }
+
+    /**
+     * Parses {@code --name=value} options; a bare {@code --name} is a flag with the value "true".
+     */
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("expected --name=value, got " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Samples VmRSS of a process from /proc at a fixed interval; reports -1 where /proc is not available.
+     * The peak includes a last sample taken by {@link #stop()}; the last value is the latest successful sample.
+     */
+    static final class RssSampler {
+
+        private final Path status;
+        private final long intervalMillis;
+        private final Thread thread;
+        private volatile boolean running = true;
+        private volatile long peakKb = -1;
+        private volatile long lastKb = -1;
+
+        private RssSampler(long pid, long intervalMillis) {
+            this.status = Path.of("/proc", String.valueOf(pid), "status");
+            this.intervalMillis = intervalMillis;
+            this.thread = new Thread(this::run, "RSS-Sampler");
+            thread.setDaemon(true);
+        }
+
+        static RssSampler start(Process process, long intervalMillis) {
+            RssSampler sampler = new RssSampler(process.pid(), intervalMillis);
+            sampler.thread.start();
+            return sampler;
+        }
+
+        /**
+         * Stops sampling and returns the peak.
+         */
+        long stop() throws InterruptedException {
+            running = false;
+            thread.interrupt();
+            thread.join();
+            sample();
+            return peakKb;
+        }
+
+        long peakKb() {
+            return peakKb;
+        }
+
+        long lastKb() {
+            return lastKb;
+        }
+
+        private void run() {
+            while (running) {
+                sample();
+                try {
+                    Thread.sleep(intervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void sample() {
+            try {
+                for (String line : Files.readAllLines(status)) {
+                    if (line.startsWith("VmRSS:")) {
+                        lastKb = Long.parseLong(line.replaceAll("\\D", ""));
+                        peakKb = Math.max(peakKb, lastKb);
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // not on Linux or the process is gone
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.dsm.mapstruct.benchmark;
+
+import com.dsm.mapstruct.adapter.api.ipc.metrics.LatencyHistogram;
+import com.dsm.mapstruct.benchmark.BenchmarkModel.Wide256;
+import com.dsm.mapstruct.benchmark.HarnessSupport.RssSampler;
+import com.dsm.mapstruct.testdata.TestClasses.Company;
+import com.dsm.mapstruct.testdata.TestClasses.Order;
+import com.dsm.mapstruct.testdata.ServerSockets;
+import com.dsm.mapstruct.testdata.TestClasses.Person;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load test: starts the real {@code IpcServer} as a child process on a temporary socket and drives it
+ * from N simulated editors, each on its own connection.
+ *
+ * An editor picks a mapping scenario (source parameters and a target path) and types the path one character at a
+ * time, sending an {@code explore_path} request per keystroke and waiting for the answer before the next one.
+ * Think times between keystrokes are exponentially distributed, with a longer pause after each completed path.
+ * Requests sent during the warmup are not measured.
+ *
+ * Reports client-side latency percentiles, throughput and the server's resident set size (sampled from /proc),
+ * writes them as JSON and optionally compares them against a stored baseline: exit code 2 flags a regression.
+ *
+ * Options (all optional): --editors=8 --duration=30 --warmup=5 --think-ms=60 --transport=nio --seed=1
+ * --server-cp=[classpath of the server build, default: this classpath] --out=[result.json]
+ * --baseline=[baseline.json] --tolerance=0.3
+ */
+public class IpcLoadGenerator {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * Mapping scenarios an editor types through: source parameters and the full path expression.
+     */
+    private static final List<Scenario> SCENARIOS = List.of(
+            new Scenario(Map.of("person", Person.class), "person.address.country.name"),
+            new Scenario(Map.of("person", Person.class), "person.orders.first.items.last.product.sku"),
+            new Scenario(Map.of("order", Order.class, "company", Company.class), "order.customer.address.city"),
+            new Scenario(Map.of("order", Order.class, "company", Company.class), "company.departments.first.head.address.zipCode"),
+            new Scenario(Map.of("company", Company.class), "company.employees.first.orders.first.orderId"),
+            new Scenario(Map.of("src", Wide256.class), "src.items.first.next.next.items.last.group006"),
+            new Scenario(Map.of("$target", Person.class), "")
+    );
+
+    private record Scenario(Map<String, Class<?>> sources, String path) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = HarnessSupport.parseOptions(args);
+        int editors = Integer.parseInt(options.getOrDefault("editors", "8"));
+        long durationNanos = Long.parseLong(options.getOrDefault("duration", "30")) * 1_000_000_000L;
+        long warmupNanos = Long.parseLong(options.getOrDefault("warmup", "5")) * 1_000_000_000L;
+        double thinkMillis = Double.parseDouble(options.getOrDefault("think-ms", "60"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        String transport = options.getOrDefault("transport", "nio");
+        String serverClasspath = options.getOrDefault("server-cp", System.getProperty("java.class.path"));
+
+        Path socketPath = Files.createTempDirectory("mapstruct-load").resolve("load.sock");
+        Process server = new ProcessBuilder("java", "-cp", serverClasspath, "com.dsm.mapstruct.IpcServer",
+                socketPath.toString(), "--transport=" + transport, "--shutdown=never")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        int exitCode = 0;
+        try {
+            ServerSockets.awaitServer(socketPath, server, Duration.ofSeconds(10));
+            RssSampler rss = RssSampler.start(server, 200);
+
+            LatencyHistogram latency = new LatencyHistogram();
+            AtomicLong errors = new AtomicLong();
+            long start = System.nanoTime();
+            long measureFrom = start + warmupNanos;
+            long end = measureFrom + durationNanos;
+            CountDownLatch done = new CountDownLatch(editors);
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < editors; i++) {
+                Editor editor = new Editor(socketPath, new SplittableRandom(seed + i), thinkMillis, measureFrom, end, latency, errors);
+                Thread thread = new Thread(() -> {
+                    try {
+                        editor.run();
+                    } catch (IOException e) {
+                        System.err.println("Editor failed: " + e.getMessage());
+                        errors.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                }, "Editor-" + i);
+                thread.start();
+                threads.add(thread);
+            }
+            done.await();
+            rss.stop();
+
+            JsonObject result = new JsonObject();
+            result.addProperty("editors", editors);
+            result.addProperty("durationSeconds", durationNanos / 1_000_000_000L);
+            result.addProperty("thinkMillis", thinkMillis);
+            result.addProperty("transport", transport);
+            result.addProperty("javaVersion", System.getProperty("java.version"));
+            result.addProperty("requests", latency.count());
+            result.addProperty("errors", errors.get());
+            result.addProperty("throughputPerSecond", Math.round(latency.count() * 1e9 / durationNanos * 10) / 10.0);
+            JsonObject micros = new JsonObject();
+            micros.addProperty("p50", latency.percentile(50) / 1000);
+            micros.addProperty("p95", latency.percentile(95) / 1000);
+            micros.addProperty("p99", latency.percentile(99) / 1000);
+            micros.addProperty("p999", latency.percentile(99.9) / 1000);
+            micros.addProperty("max", latency.max() / 1000);
+            micros.addProperty("mean", Math.round(latency.mean() / 1000));
+            result.add("latencyMicros", micros);
+            JsonObject rssKb = new JsonObject();
+            rssKb.addProperty("peak", rss.peakKb());
+            rssKb.addProperty("end", rss.lastKb());
+            result.add("serverRssKb", rssKb);
+
+            String json = GSON.toJson(result);
+            System.out.println(json);
+            if (options.containsKey("out")) {
+                Files.writeString(Path.of(options.get("out")), json + "\n");
+            }
+            if (options.containsKey("baseline")) {
+                double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "0.3"));
+                JsonObject baseline = JsonParser.parseString(Files.readString(Path.of(options.get("baseline")))).getAsJsonObject();
+                List<String> regressions = compare(result, baseline, tolerance);
+                if (!regressions.isEmpty()) {
+                    regressions.forEach(regression -> System.err.println("REGRESSION: " + regression));
+                    exitCode = 2;
+                } else {
+                    System.out.println("No regression against " + options.get("baseline") + " (tolerance " + tolerance + ")");
+                }
+            }
+            if (errors.get() > 0) {
+                System.err.println(errors.get() + " requests failed");
+                exitCode = Math.max(exitCode, 1);
+            }
+        } finally {
+            server.destroy();
+            server.waitFor();
+            Files.deleteIfExists(socketPath);
+            Files.deleteIfExists(socketPath.getParent());
+        }
+        // only after the server is gone: System.exit would skip the finally block
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Higher latency, higher memory or lower throughput than the baseline allows; checked metrics that are missing
+     * from the baseline are skipped.
+     */
+    static List<String> compare(JsonObject result, JsonObject baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (String percentile : List.of("p50", "p99")) {
+            checkUpper(regressions, "latency " + percentile, result.getAsJsonObject("latencyMicros"),
+                    baseline.getAsJsonObject("latencyMicros"), percentile, tolerance);
+        }
+        checkUpper(regressions, "peak RSS", result.getAsJsonObject("serverRssKb"), baseline.getAsJsonObject("serverRssKb"),
+                "peak", tolerance);
+        if (baseline.has("throughputPerSecond")) {
+            double expected = baseline.get("throughputPerSecond").getAsDouble();
+            double actual = result.get("throughputPerSecond").getAsDouble();
+            if (actual < expected * (1 - tolerance)) {
+                regressions.add("throughput " + actual + "/s, baseline " + expected + "/s");
+            }
+        }
+        return regressions;
+    }
+
+    private static void checkUpper(List<String> regressions, String label, JsonObject result, JsonObject baseline,
+                                   String key, double tolerance) {
+        if (baseline == null || !baseline.has(key) || baseline.get(key).getAsLong() <= 0) {
+            return;
+        }
+        long expected = baseline.get(key).getAsLong();
+        long actual = result.get(key).getAsLong();
+        if (actual > expected * (1 + tolerance)) {
+            regressions.add(label + " " + actual + ", baseline " + expected);
+        }
+    }
+
+    /**
+     * One simulated editor: types scenario paths keystroke by keystroke on its own connection.
+     */
+    private record Editor(Path socketPath, SplittableRandom random, double thinkMillis, long measureFrom, long end,
+                          LatencyHistogram latency, AtomicLong errors) {
+
+        void run() throws IOException {
+            try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+                channel.connect(UnixDomainSocketAddress.of(socketPath));
+                BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+                long requestId = 0;
+                while (System.nanoTime() < end) {
+                    Scenario scenario = SCENARIOS.get(random.nextInt(SCENARIOS.size()));
+                    JsonArray sources = new JsonArray();
+                    scenario.sources().forEach((name, type) -> {
+                        JsonObject source = new JsonObject();
+                        source.addProperty("name", name);
+                        source.addProperty("type", type.getName());
+                        sources.add(source);
+                    });
+                    boolean clientFiltering = random.nextInt(4) == 0;
+                    for (int typed = 0; typed <= scenario.path().length() && System.nanoTime() < end; typed++) {
+                        JsonObject params = new JsonObject();
+                        params.add("sources", sources);
+                        params.addProperty("pathExpression", scenario.path().substring(0, typed));
+                        params.addProperty("isEnum", false);
+                        params.addProperty("clientFiltering", clientFiltering);
+                        JsonObject request = new JsonObject();
+                        request.addProperty("id", String.valueOf(++requestId));
+                        request.addProperty("method", "explore_path");
+                        request.add("params", params);
+
+                        long sent = System.nanoTime();
+                        out.write(request.toString());
+                        out.write('\n');
+                        out.flush();
+                        String response = in.readLine();
+                        long received = System.nanoTime();
+                        if (response == null) {
+                            throw new IOException("server closed the connection");
+                        }
+                        if (sent >= measureFrom) {
+                            latency.record(received - sent);
+                            if (response.contains("\"error\":")) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                        think(thinkMillis);
+                    }
+                    think(thinkMillis * 10);
+                }
+            }
+        }
+
+        private void think(double meanMillis) {
+            long pauseMicros = (long) (-Math.log(1 - random.nextDouble()) * meanMillis * 1000);
+            try {
+                Thread.sleep(pauseMicros / 1000, (int) (pauseMicros % 1000) * 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.dsm.mapstruct.benchmark;
+
+import com.dsm.mapstruct.core.model.CompletionResult;
+import com.dsm.mapstruct.core.model.SourceParameter;
+import com.dsm.mapstruct.core.usecase.helper.PathNavigator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link PathNavigator#navigate} and {@link PathNavigator#navigateFromSources} over the
+ * {@link BenchmarkModel} fixtures.
+ *
+ * - Warm variants share one navigator, so member tables come from the cache after the first call.
+ * - Cold variants build a new navigator per invocation: every member table is analysed again
+ *   (the JDK's own reflection caches stay warm, as they would in a long-running server).
+ *
+ * Run with {@code ./mvnw -Pbenchmarks -DskipTests verify}, see the README for narrowing the parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class NavigationBenchmark {
+
+    private static final String MATCHED_STEM = "amount";
+
+    /**
+     * Number of hops before the completed segment.
+     */
+    @Param({"1", "4", "8"})
+    int depth;
+
+    /**
+     * Members per class along the path.
+     */
+    @Param({"8", "64", "256"})
+    int members;
+
+    /**
+     * How each hop is taken: the {@code next} reference, or the {@code items} list via {@code first}/{@code last}.
+     */
+    @Param({"none", "first", "last"})
+    String accessor;
+
+    /**
+     * Length of the partial last segment (a prefix of one of the field name stems).
+     */
+    @Param({"0", "3"})
+    int prefixLength;
+
+    /**
+     * Target attribute completion (setters) instead of source completion (getters); {@code navigate} only.
+     */
+    @Param({"false", "true"})
+    boolean target;
+
+    Class<?> rootClass;
+    String path;
+    List<SourceParameter> sources;
+    String sourcesPath;
+    PathNavigator warmNavigator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rootClass = BenchmarkModel.wide(members);
+        String hop = accessor.equals("none") ? "next" : "items." + accessor;
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            builder.append(hop).append('.');
+        }
+        path = builder.append(MATCHED_STEM, 0, prefixLength).toString();
+        // a second parameter so the path has to be routed by parameter name
+        sources = List.of(new SourceParameter("src", rootClass.getName()), new SourceParameter("other", String.class.getName()));
+        sourcesPath = "src." + path;
+        warmNavigator = new PathNavigator();
+    }
+
+    /**
+     * Fresh navigator for every invocation, so no member table is cached.
+     */
+    @State(Scope.Thread)
+    public static class ColdNavigator {
+
+        PathNavigator navigator;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            navigator = new PathNavigator();
+        }
+    }
+
+    @Benchmark
+    public CompletionResult navigateWarm() {
+        return warmNavigator.navigate(rootClass, path, false, target);
+    }
+
+    @Benchmark
+    public CompletionResult navigateCold(ColdNavigator cold) {
+        return cold.navigator.navigate(rootClass, path, false, target);
+    }
+
+    @Benchmark
+    public CompletionResult navigateFromSourcesWarm() {
+        return warmNavigator.navigateFromSources(sources, sourcesPath, false);
+    }
+
+    @Benchmark
+    public CompletionResult navigateFromSourcesCold(ColdNavigator cold) {
+        return cold.navigator.navigateFromSources(sources, sourcesPath, false);
+    }
+}
@@ -0,0 +1,240 @@
+package com.dsm.mapstruct.benchmark;
+
+import com.dsm.mapstruct.benchmark.HarnessSupport.RssSampler;
+import com.dsm.mapstruct.testdata.ServerSockets;
+import com.dsm.mapstruct.testdata.TestClasses.Person;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup benchmark: wall time from process launch to the first answer, per supported way of running the tool.
+ *
+ * - {@code jar}: IPC server from the fat jar; time to the first {@code ping} and to the first {@code explore_path}
+ *   on a class nothing has loaded yet.
+ * - {@code aot}: the same with the AOT cache (JDK 25+, trained with {@code --train} when missing).
+ * - {@code cli}: one-shot command-line query, in-process ({@code --no-daemon}); time until the process exits.
+ * - {@code cli-forward}: one-shot query forwarded to an already running daemon.
+ *
+ * Each configuration runs {@code --runs} times (min / median / max are reported) plus one extra run under
+ * {@code -Xlog:class+load} that counts the classes loaded up to the first completion. RSS is the peak VmRSS
+ * sampled from /proc while the process starts (Linux only, -1 elsewhere).
+ *
+ * Options: --runs=10 --jar=target/mapstruct-path-explorer.jar --out=target/startup-benchmark.json
+ */
+public class StartupBenchmark {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Duration SERVER_TIMEOUT = Duration.ofSeconds(30);
+    // RSS of a starting process changes quickly, sample often
+    private static final long SAMPLE_MILLIS = 5;
+    private static final String COLD_CLASS = Person.class.getName();
+    private static final String EXPLORE_REQUEST = "{\"id\":\"2\",\"method\":\"explore_path\",\"params\":{\"sources\":"
+            + "[{\"name\":\"person\",\"type\":\"" + COLD_CLASS + "\"}],\"pathExpression\":\"person.address.\",\"isEnum\":false}}\n";
+
+    private final String jar;
+    private final String classpath;
+    private final int runs;
+    private final Path workDir;
+
+    StartupBenchmark(String jar, int runs) throws IOException {
+        this.jar = jar;
+        // the cold class comes from the test classes, appended after the jar as an application classpath would be
+        this.classpath = jar + ":target/test-classes";
+        this.runs = runs;
+        this.workDir = Files.createTempDirectory("mapstruct-startup");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = HarnessSupport.parseOptions(args);
+        String jar = options.getOrDefault("jar", "target/mapstruct-path-explorer.jar");
+        if (!Files.exists(Path.of(jar))) {
+            System.err.println(jar + " not found, run ./mvnw package first");
+            System.exit(1);
+        }
+        StartupBenchmark benchmark = new StartupBenchmark(jar, Integer.parseInt(options.getOrDefault("runs", "10")));
+
+        JsonObject result = new JsonObject();
+        result.addProperty("javaVersion", System.getProperty("java.version"));
+        result.addProperty("runs", benchmark.runs);
+        result.addProperty("coldClass", COLD_CLASS);
+        JsonObject configurations = new JsonObject();
+        configurations.add("jar", benchmark.server(List.of()));
+        configurations.add("aot", benchmark.aot());
+        configurations.add("cli", benchmark.cli(false));
+        configurations.add("cli-forward", benchmark.cli(true));
+        result.add("configurations", configurations);
+
+        String json = GSON.toJson(result);
+        System.out.println(json);
+        Files.writeString(Path.of(options.getOrDefault("out", "target/startup-benchmark.json")), json + "\n");
+    }
+
+    /**
+     * IPC server: time to the first ping, then to the first completion on the cold class.
+     */
+    private JsonObject server(List<String> jvmOptions) throws Exception {
+        long[] ping = new long[runs];
+        long[] completion = new long[runs];
+        long rss = -1;
+        for (int run = 0; run < runs; run++) {
+            ServerRun serverRun = startServer(jvmOptions, List.of());
+            ping[run] = serverRun.pingMillis();
+            completion[run] = serverRun.completionMillis();
+            rss = Math.max(rss, serverRun.peakRssKb());
+        }
+        JsonObject result = new JsonObject();
+        result.add("firstPingMillis", summary(ping));
+        result.add("firstCompletionMillis", summary(completion));
+        result.addProperty("loadedClasses", countLoadedClasses(classLog -> startServer(jvmOptions, List.of(classLog)).pingMillis()));
+        result.addProperty("peakRssKb", rss);
+        return result;
+    }
+
+    private JsonObject aot() throws Exception {
+        if (Runtime.version().feature() < 25) {
+            JsonObject skipped = new JsonObject();
+            skipped.addProperty("skipped", "AOT cache needs JDK 25+, running on " + Runtime.version());
+            return skipped;
+        }
+        Path cache = workDir.resolve("startup.aot");
+        // trained with the jar alone, the runtime classpath (jar + test classes) keeps it as a prefix
+        Process training = new ProcessBuilder("java", "-XX:AOTCacheOutput=" + cache, "-cp", jar,
+                "com.dsm.mapstruct.IpcServer", "--train")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (training.waitFor() != 0 || !Files.exists(cache)) {
+            JsonObject failed = new JsonObject();
+            failed.addProperty("skipped", "AOT cache training failed");
+            return failed;
+        }
+        return server(List.of("-XX:AOTCache=" + cache));
+    }
+
+    /**
+     * One-shot command-line query, in-process or forwarded to a daemon started beforehand.
+     */
+    private JsonObject cli(boolean forward) throws Exception {
+        Process daemon = null;
+        Path socket = workDir.resolve("daemon.sock");
+        if (forward) {
+            daemon = launch(List.of(), List.of(socket.toString(), "--transport=nio", "--shutdown=never"), "com.dsm.mapstruct.IpcServer");
+            ServerSockets.awaitServer(socket, daemon, SERVER_TIMEOUT);
+        }
+        try {
+            List<String> args = forward
+                    ? List.of("--socket=" + socket, COLD_CLASS, "address.")
+                    : List.of("--no-daemon", COLD_CLASS, "address.");
+            long[] completion = new long[runs];
+            long rss = -1;
+            for (int run = 0; run < runs; run++) {
+                long start = System.nanoTime();
+                Process process = launch(List.of(), args, "com.dsm.mapstruct.MapStructPathTool");
+                RssSampler sampler = RssSampler.start(process, SAMPLE_MILLIS);
+                String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                process.waitFor(30, TimeUnit.SECONDS);
+                completion[run] = (System.nanoTime() - start) / 1_000_000;
+                rss = Math.max(rss, sampler.stop());
+                if (process.exitValue() != 0 || !output.contains("\"className\"")) {
+                    throw new IllegalStateException("CLI run failed: " + output);
+                }
+            }
+            JsonObject result = new JsonObject();
+            result.add("firstCompletionMillis", summary(completion));
+            result.addProperty("loadedClasses", countLoadedClasses(classLog -> {
+                Process process = launch(List.of(classLog), args, "com.dsm.mapstruct.MapStructPathTool");
+                process.getInputStream().readAllBytes();
+                return process.waitFor();
+            }));
+            result.addProperty("peakRssKb", rss);
+            return result;
+        } finally {
+            if (daemon != null) {
+                daemon.destroy();
+                daemon.waitFor();
+            }
+        }
+    }
+
+    private record ServerRun(long pingMillis, long completionMillis, long peakRssKb) {
+    }
+
+    private ServerRun startServer(List<String> jvmOptions, List<String> extraJvmOptions) throws Exception {
+        Path socket = workDir.resolve("server.sock");
+        Files.deleteIfExists(socket);
+        List<String> options = new ArrayList<>(jvmOptions);
+        options.addAll(extraJvmOptions);
+        long start = System.nanoTime();
+        Process server = launch(options, List.of(socket.toString(), "--shutdown=never"), "com.dsm.mapstruct.IpcServer");
+        RssSampler sampler = RssSampler.start(server, SAMPLE_MILLIS);
+        try (SocketChannel channel = ServerSockets.awaitConnect(socket, server, SERVER_TIMEOUT)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            channel.write(ByteBuffer.wrap("{\"id\":\"1\",\"method\":\"ping\",\"params\":{}}\n".getBytes(StandardCharsets.UTF_8)));
+            String pong = in.readLine();
+            long ping = (System.nanoTime() - start) / 1_000_000;
+            channel.write(ByteBuffer.wrap(EXPLORE_REQUEST.getBytes(StandardCharsets.UTF_8)));
+            String completion = in.readLine();
+            long explored = (System.nanoTime() - start) / 1_000_000;
+            if (pong == null || !pong.contains("pong") || completion == null || !completion.contains("\"result\"")) {
+                throw new IllegalStateException("unexpected responses: " + pong + " / " + completion);
+            }
+            return new ServerRun(ping, explored, sampler.stop());
+        } finally {
+            server.destroy();
+            server.waitFor();
+            Files.deleteIfExists(socket);
+        }
+    }
+
+    private interface ClassLogRun {
+        long run(String classLogOption) throws Exception;
+    }
+
+    /**
+     * Runs once with class loading logged to a file and counts the loaded classes.
+     */
+    private long countLoadedClasses(ClassLogRun run) throws Exception {
+        Path classLog = workDir.resolve("classes.log");
+        Files.deleteIfExists(classLog);
+        run.run("-Xlog:class+load=info:file=" + classLog);
+        try (var lines = Files.lines(classLog)) {
+            return lines.filter(line -> line.contains("source:")).count();
+        }
+    }
+
+    private Process launch(List<String> jvmOptions, List<String> args, String mainClass) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("java");
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-cp", classpath, mainClass));
+        command.addAll(args);
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+    }
+
+    private static JsonObject summary(long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        JsonObject summary = new JsonObject();
+        summary.addProperty("min", sorted[0]);
+        summary.addProperty("median", sorted[sorted.length / 2]);
+        summary.addProperty("max", sorted[sorted.length - 1]);
+        return summary;
+    }
+}
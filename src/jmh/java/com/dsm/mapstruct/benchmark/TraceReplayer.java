@@ -0,0 +1,249 @@
+package com.dsm.mapstruct.benchmark;
+
+import com.dsm.mapstruct.adapter.api.ipc.metrics.LatencyHistogram;
+import com.dsm.mapstruct.adapter.api.ipc.metrics.RequestRecorder;
+import com.dsm.mapstruct.adapter.api.ipc.metrics.RequestRecorder.Entry;
+import com.dsm.mapstruct.testdata.ServerSockets;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Replays a request trace recorded with {@code --record=<file>} (see {@link RequestRecorder}) against a server build.
+ *
+ * Every recorded session gets its own connection and replays its requests in order, at the recorded pace scaled
+ * by {@code --speed} (2 = twice as fast, 0 = no pauses) and counted from the first request of the trace, so idle
+ * server time before the first client connected is not replayed. A session waits for each response before the next request,
+ * as an editor does. Responses recorded with a hash are compared with the replayed ones; {@code shutdown}
+ * requests are skipped.
+ *
+ * Options: --trace=[file, required] --speed=1 --transport=nio --out=[result.json]
+ * --server-cp=[classpath of the server build, default: this classpath] or --socket=[socket of a running server]
+ *
+ * Exit code 3 signals changed responses.
+ */
+public class TraceReplayer {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final int MISMATCHES_SHOWN = 10;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = HarnessSupport.parseOptions(args);
+        if (!options.containsKey("trace")) {
+            System.err.println("Usage: TraceReplayer --trace=<file> [--speed=1] [--server-cp=<cp> | --socket=<path>] [--out=<file>]");
+            System.exit(1);
+        }
+        double speed = Double.parseDouble(options.getOrDefault("speed", "1"));
+        Map<Long, List<Entry>> sessions = readTrace(Path.of(options.get("trace")));
+        // arrival times count from server start; replay from the first recorded request instead
+        long originMicros = sessions.values().stream()
+                .mapToLong(entries -> entries.get(0).arrivalMicros())
+                .min()
+                .orElse(0);
+
+        Process server = null;
+        Path socketPath;
+        if (options.containsKey("socket")) {
+            socketPath = Path.of(options.get("socket"));
+        } else {
+            socketPath = Files.createTempDirectory("mapstruct-replay").resolve("replay.sock");
+            server = new ProcessBuilder("java", "-cp", options.getOrDefault("server-cp", System.getProperty("java.class.path")),
+                    "com.dsm.mapstruct.IpcServer", socketPath.toString(),
+                    "--transport=" + options.getOrDefault("transport", "nio"), "--shutdown=never")
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+        }
+        int exitCode = 0;
+        try {
+            ServerSockets.awaitServer(socketPath, server, Duration.ofSeconds(10));
+            LatencyHistogram latency = new LatencyHistogram();
+            AtomicLong compared = new AtomicLong();
+            ConcurrentLinkedQueue<String> mismatches = new ConcurrentLinkedQueue<>();
+            ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+
+            long start = System.nanoTime();
+            List<Thread> threads = new ArrayList<>();
+            for (Map.Entry<Long, List<Entry>> session : sessions.entrySet()) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        replaySession(socketPath, session.getValue(), start, originMicros, speed, latency, compared, mismatches);
+                    } catch (IOException e) {
+                        failures.add("session " + session.getKey() + ": " + e.getMessage());
+                    }
+                }, "Replay-Session-" + session.getKey());
+                thread.start();
+                threads.add(thread);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long wallNanos = System.nanoTime() - start;
+
+            JsonObject result = new JsonObject();
+            result.addProperty("trace", options.get("trace"));
+            result.addProperty("speed", speed);
+            result.addProperty("sessions", sessions.size());
+            result.addProperty("requests", latency.count());
+            result.addProperty("compared", compared.get());
+            result.addProperty("mismatches", mismatches.size());
+            result.addProperty("failedSessions", failures.size());
+            result.addProperty("wallMillis", wallNanos / 1_000_000);
+            JsonObject micros = new JsonObject();
+            micros.addProperty("p50", latency.percentile(50) / 1000);
+            micros.addProperty("p95", latency.percentile(95) / 1000);
+            micros.addProperty("p99", latency.percentile(99) / 1000);
+            micros.addProperty("p999", latency.percentile(99.9) / 1000);
+            micros.addProperty("max", latency.max() / 1000);
+            micros.addProperty("mean", Math.round(latency.mean() / 1000));
+            result.add("latencyMicros", micros);
+
+            String json = GSON.toJson(result);
+            System.out.println(json);
+            if (options.containsKey("out")) {
+                Files.writeString(Path.of(options.get("out")), json + "\n");
+            }
+            failures.forEach(failure -> System.err.println("FAILED: " + failure));
+            mismatches.stream().limit(MISMATCHES_SHOWN).forEach(mismatch -> System.err.println("MISMATCH: " + mismatch));
+            if (!mismatches.isEmpty()) {
+                exitCode = 3;
+            } else if (!failures.isEmpty()) {
+                exitCode = 1;
+            }
+        } finally {
+            if (server != null) {
+                server.destroy();
+                server.waitFor();
+                Files.deleteIfExists(socketPath);
+                Files.deleteIfExists(socketPath.getParent());
+            }
+        }
+        // only after the server is gone: System.exit would skip the finally block
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Trace entries grouped by session, each session in arrival order.
+     */
+    static Map<Long, List<Entry>> readTrace(Path trace) throws IOException {
+        Map<Long, List<Entry>> sessions = new TreeMap<>();
+        InputStream in = Files.newInputStream(trace);
+        if (trace.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Entry entry = Entry.parse(line);
+                if (entry != null && !entry.request().contains("\"method\":\"shutdown\"")) {
+                    sessions.computeIfAbsent(entry.sessionId(), id -> new ArrayList<>()).add(entry);
+                }
+            }
+        }
+        sessions.values().forEach(entries -> entries.sort(Comparator.comparingLong(Entry::arrivalMicros)));
+        return sessions;
+    }
+
+    private static void replaySession(Path socketPath, List<Entry> entries, long start, long originMicros, double speed,
+                                      LatencyHistogram latency, AtomicLong compared,
+                                      ConcurrentLinkedQueue<String> mismatches) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+            OutputStream out = Channels.newOutputStream(channel);
+            // buffered: responses are read a byte at a time up to the newline
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 65536));
+            boolean framed = false;
+            for (Entry entry : entries) {
+                if (speed > 0) {
+                    long dueNanos = start + (long) ((entry.arrivalMicros() - originMicros) * 1000 / speed);
+                    long waitNanos = dueNanos - System.nanoTime();
+                    if (waitNanos > 0) {
+                        try {
+                            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                }
+                long sent = System.nanoTime();
+                out.write((entry.request() + "\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                byte[] response = framed ? readFrame(in) : readLine(in);
+                latency.record(System.nanoTime() - sent);
+
+                if (!RequestRecorder.NO_HASH.equals(entry.responseHash())) {
+                    compared.incrementAndGet();
+                    String hash = RequestRecorder.hash(response);
+                    if (!hash.equals(entry.responseHash())) {
+                        mismatches.add("session " + entry.sessionId() + " at " + entry.arrivalMicros() + " us: " + entry.request());
+                    }
+                }
+                if (!framed && entry.request().contains("\"method\":\"initialize\"")) {
+                    String json = new String(response, StandardCharsets.UTF_8).trim();
+                    JsonObject initialized = JsonParser.parseString(json).getAsJsonObject();
+                    framed = initialized.has("result")
+                            && "length-prefixed".equals(initialized.getAsJsonObject("result").get("framing").getAsString());
+                }
+            }
+        }
+    }
+
+    /**
+     * Response line including its newline, as written by the server.
+     */
+    private static byte[] readLine(DataInputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(1024);
+        int b;
+        do {
+            b = in.read();
+            if (b < 0) {
+                throw new IOException("server closed the connection");
+            }
+            line.write(b);
+        } while (b != '\n');
+        return line.toByteArray();
+    }
+
+    /**
+     * Length-prefixed frame including its 4-byte length, as written by the server.
+     */
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        byte[] frame = new byte[4 + length];
+        frame[0] = (byte) (length >>> 24);
+        frame[1] = (byte) (length >>> 16);
+        frame[2] = (byte) (length >>> 8);
+        frame[3] = (byte) length;
+        in.readFully(frame, 4, length);
+        return frame;
+    }
+}
@@ -1,6 +1,9 @@
 package com.dsm.mapstruct;
 
 import com.dsm.mapstruct.adapter.api.ipc.IpcServerRunner;
+import com.dsm.mapstruct.adapter.api.ipc.TrainingRunner;
+
+import java.util.Arrays;
 
 // testing:
 // http://www.dest-unreach.org/socat/
@@ -12,10 +15,21 @@ import com.dsm.mapstruct.adapter.api.ipc.IpcServerRunner;
  *
  * Usage example:
  * java -cp mapstruct-path-explorer.jar:[app cp] com.dsm.mapstruct.IpcServer /tmp/test-ipc.sock
+ *
+ * AOT cache training (JDK 25+):
+ * java -XX:AOTCacheOutput=mapstruct-path-explorer.aot -cp mapstruct-path-explorer.jar com.dsm.mapstruct.IpcServer --train
  */
 public class IpcServer {
 
     public static void main(String[] args) {
+        // must happen before the first logger is created, logback reads it while configuring the console appender
+        if (Arrays.asList(args).contains("--verbose") && System.getProperty("mapstruct.console.level") == null) {
+            System.setProperty("mapstruct.console.level", "TRACE");
+        }
+        if (Arrays.asList(args).contains("--train")) {
+            // exit explicitly: the training server threads would keep the JVM alive, and the AOT cache is written on exit
+            System.exit(TrainingRunner.run(args));
+        }
         int exitCode = IpcServerRunner.run(args);
         if (exitCode != 0) {
             System.exit(exitCode);
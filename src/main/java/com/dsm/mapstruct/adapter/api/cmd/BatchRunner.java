@@ -0,0 +1,107 @@
+package com.dsm.mapstruct.adapter.api.cmd;
+
+import com.dsm.mapstruct.core.usecase.ExplorePathUseCase;
+import com.dsm.mapstruct.core.usecase.ExplorePathUseCase.ExplorePathParams;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch mode of the command-line tool: reads one {@link ExplorePathParams} JSON object per line and writes
+ * one compact JSON line per request, in input order.
+ *
+ * - Requests are explored in parallel by a fixed pool, all sharing one {@link ExplorePathUseCase}
+ *   so the reflection caches warmed by earlier lines serve the later ones.
+ * - At most {@code parallelism * 4} requests are in flight, so large inputs are streamed rather than buffered.
+ * - A request that fails produces {@code {"error": "..."}} on its line; the batch continues.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BatchRunner {
+
+    private static final Gson GSON = new Gson();
+
+    ExplorePathUseCase explorePathUseCase;
+    int parallelism;
+
+    public BatchRunner(ExplorePathUseCase explorePathUseCase, int parallelism) {
+        this.explorePathUseCase = explorePathUseCase;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Processes every non-blank input line and writes the results to {@code out}.
+     *
+     * @return number of lines that produced an error
+     */
+    public int run(BufferedReader in, PrintStream out) throws IOException {
+        AtomicInteger workerIndex = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r);
+            thread.setName("MapStruct-Batch-Worker-" + workerIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<CompletableFuture<String>> pending = new ArrayDeque<>();
+        int maxPending = parallelism * 4;
+        int errors = 0;
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String request = line;
+                pending.add(CompletableFuture.supplyAsync(() -> process(request), workers));
+                // emit finished results from the head, block only once the window is full
+                while (!pending.isEmpty() && (pending.size() >= maxPending || pending.peek().isDone())) {
+                    errors += write(pending.poll().join(), out);
+                }
+            }
+            while (!pending.isEmpty()) {
+                errors += write(pending.poll().join(), out);
+            }
+        } finally {
+            out.flush();
+            workers.shutdownNow();
+        }
+        return errors;
+    }
+
+    private String process(String line) {
+        try {
+            ExplorePathParams params = GSON.fromJson(line, ExplorePathParams.class);
+            if (params == null || params.pathExpression() == null) {
+                return error("pathExpression is required");
+            }
+            return GSON.toJson(explorePathUseCase.explore(params));
+        } catch (JsonParseException e) {
+            return error("Invalid JSON: " + e.getMessage());
+        } catch (Exception | LinkageError e) {
+            // a type whose dependencies are missing fails this line only, not the whole batch
+            return error(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+        }
+    }
+
+    private static String error(String message) {
+        JsonObject error = new JsonObject();
+        error.addProperty("error", message);
+        return GSON.toJson(error);
+    }
+
+    private static int write(String result, PrintStream out) {
+        out.println(result);
+        return result.startsWith("{\"error\":") ? 1 : 0;
+    }
+}
@@ -3,6 +3,13 @@ package com.dsm.mapstruct.adapter.api.cmd;
 import com.dsm.mapstruct.core.model.SourceParameter;
 import com.dsm.mapstruct.core.usecase.ExplorePathUseCase;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 public class CommandToolRunner {
@@ -15,14 +22,45 @@ public class CommandToolRunner {
      * @return 0 for success, 1 for error
      */
     public static int run(String[] args) {
-        if (args.length < 2) {
+        if (args.length >= 1 && args[0].equals("--batch")) {
+            return runBatch(args.length >= 2 ? args[1] : null);
+        }
+        String socketOption = null;
+        boolean forward = true;
+        List<String> positional = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--socket=")) {
+                socketOption = arg.substring("--socket=".length());
+            } else if (arg.equals("--no-daemon")) {
+                forward = false;
+            } else {
+                positional.add(arg);
+            }
+        }
+        if (positional.size() < 2) {
             printUsage();
             return 1;
         }
 
-        String className = args[0];
-        String pathExpression = args[1];
+        String className = positional.get(0);
+        String pathExpression = positional.get(1);
+
+        if (forward) {
+            Path socket = DaemonClient.locateSocket(socketOption);
+            String result = socket == null ? null : DaemonClient.explorePath(socket, className, pathExpression);
+            if (result != null) {
+                System.out.println(DaemonClient.prettyPrint(result));
+                return 0;
+            }
+        }
+        return runInProcess(className, pathExpression);
+    }
 
+    /**
+     * Introspects on this JVM; used when no IPC server is reachable or the server could not answer.
+     * Kept out of {@link #run} so the forwarding path never loads the use case and its dependencies.
+     */
+    private static int runInProcess(String className, String pathExpression) {
         try {
             ExplorePathUseCase explorePathUseCase = new ExplorePathUseCase();
             Class<?> clazz = Class.forName(className);
@@ -51,11 +89,38 @@ public class CommandToolRunner {
         }
     }
 
+    /**
+     * Batch mode: JSON lines from the file (or stdin when no file or "-" is given) to JSON lines on stdout.
+     * Returns 1 if any line failed, after all lines were processed.
+     */
+    private static int runBatch(String file) {
+        int parallelism = Integer.getInteger("mapstruct.batch.parallelism", Runtime.getRuntime().availableProcessors());
+        BatchRunner batchRunner = new BatchRunner(new ExplorePathUseCase(), parallelism);
+        try (BufferedReader in = file == null || file.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(file))) {
+            int errors = batchRunner.run(in, System.out);
+            if (errors > 0) {
+                printError(errors + " batch request(s) failed");
+                return 1;
+            }
+            return 0;
+        } catch (IOException e) {
+            printError("Cannot read batch input: " + e.getMessage());
+            return 1;
+        }
+    }
+
     private static void printUsage() {
         System.err.println("MapStruct Path Completion Tool");
         System.err.println();
         System.err.println("Usage:");
         System.err.println("  java -jar mapstruct-path-explorer.jar <fully.qualified.ClassName> <path.expression>");
+        System.err.println("  java -jar mapstruct-path-explorer.jar --batch [file]   (JSON lines from file or stdin)");
+        System.err.println();
+        System.err.println("Queries are forwarded to a running IPC server if its socket is given");
+        System.err.println("(--socket=<path>, -Dmapstruct.socket or $MAPSTRUCT_IPC_SOCKET); the server answers");
+        System.err.println("from its own classpath. --no-daemon always introspects in this process.");
         System.err.println();
         System.err.println("Examples:");
         System.err.println("  # Show all fields in address");
@@ -74,6 +139,10 @@ public class CommandToolRunner {
         System.err.println("  java -cp \"mapstruct-path-explorer.jar:path/to/classes\" \\");
         System.err.println("       com.dsm.mapstruct.MapStructPathTool \\");
         System.err.println("       \"com.example.User\" \"address.\"");
+        System.err.println();
+        System.err.println("Batch mode (one explore_path params object per line, one result per line, in order):");
+        System.err.println("  echo '{\"sources\":[{\"name\":\"user\",\"type\":\"com.example.User\"}],\"pathExpression\":\"user.\"}' \\");
+        System.err.println("       | java -jar mapstruct-path-explorer.jar --batch");
     }
 
     private static void printError(String message) {
@@ -0,0 +1,194 @@
+package com.dsm.mapstruct.adapter.api.cmd;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Minimal client that forwards a command-line query to a running IPC server.
+ *
+ * This class is on the startup path of every command-line call, so it deliberately uses nothing but the JDK:
+ * the request is written by hand and the result is cut out of the response line without parsing it,
+ * which keeps Gson, Guava and the reflection machinery out of the forwarding JVM.
+ *
+ * Queries are only forwarded to a socket the caller names explicitly: a daemon answers from its own classpath,
+ * which is not necessarily the one given to the command line.
+ */
+public class DaemonClient {
+
+    static final String SOCKET_PROPERTY = "mapstruct.socket";
+    static final String SOCKET_ENV = "MAPSTRUCT_IPC_SOCKET";
+    // a daemon that does not answer within this time is treated as unreachable
+    static final long TIMEOUT_MILLIS = Long.getLong("mapstruct.cli.timeoutMs", 5000);
+
+    private static final String REQUEST_ID = "cli";
+    private static final String RESULT_PREFIX = "{\"id\":\"" + REQUEST_ID + "\",\"result\":";
+
+    /**
+     * Socket to forward to: the explicit option, then {@code -Dmapstruct.socket}, then {@code $MAPSTRUCT_IPC_SOCKET}.
+     * Returns null if none is given or the chosen path does not exist.
+     */
+    public static Path locateSocket(String explicitPath) {
+        String path = explicitPath;
+        if (path == null) {
+            path = System.getProperty(SOCKET_PROPERTY);
+        }
+        if (path == null) {
+            path = System.getenv(SOCKET_ENV);
+        }
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        Path socket = Path.of(path);
+        return Files.exists(socket) ? socket : null;
+    }
+
+    /**
+     * Sends one {@code explore_path} request for a single source named "source" and returns the result JSON,
+     * or null if the daemon is unreachable, answered with an error or did not answer within
+     * {@code mapstruct.cli.timeoutMs} (the caller then runs the query in-process).
+     */
+    public static String explorePath(Path socket, String className, String pathExpression) {
+        return explorePath(socket, className, pathExpression, TIMEOUT_MILLIS);
+    }
+
+    public static String explorePath(Path socket, String className, String pathExpression, long timeoutMillis) {
+        String request = "{\"id\":\"" + REQUEST_ID + "\",\"method\":\"explore_path\",\"params\":{"
+                + "\"sources\":[{\"name\":\"source\",\"type\":" + quote(className) + "}],"
+                + "\"pathExpression\":" + quote(pathExpression) + ",\"isEnum\":false}}\n";
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socket));
+            ByteBuffer buffer = ByteBuffer.wrap(request.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            String response = readLine(channel, System.nanoTime() + timeoutMillis * 1_000_000);
+            if (response == null || !response.startsWith(RESULT_PREFIX) || !response.endsWith("}")) {
+                return null;
+            }
+            return response.substring(RESULT_PREFIX.length(), response.length() - 1);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the first response line, or returns null if the connection closes or the deadline passes first.
+     */
+    private static String readLine(SocketChannel channel, long deadlineNanos) throws IOException {
+        channel.configureBlocking(false);
+        try (Selector selector = Selector.open()) {
+            channel.register(selector, SelectionKey.OP_READ);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(4096);
+            ByteBuffer chunk = ByteBuffer.allocate(8192);
+            while (true) {
+                long remainingMillis = (deadlineNanos - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0) {
+                    return null;
+                }
+                selector.select(remainingMillis);
+                selector.selectedKeys().clear();
+                chunk.clear();
+                int read = channel.read(chunk);
+                if (read < 0) {
+                    return null;
+                }
+                byte[] bytes = chunk.array();
+                for (int i = 0; i < read; i++) {
+                    if (bytes[i] == '\n') {
+                        line.write(bytes, 0, i);
+                        return line.toString(StandardCharsets.UTF_8);
+                    }
+                }
+                line.write(bytes, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Re-indents compact JSON the way Gson's pretty printing does, so a forwarded result prints exactly like one
+     * computed in-process. String contents are copied as they are, escapes included.
+     */
+    public static String prettyPrint(String json) {
+        StringBuilder out = new StringBuilder(json.length() * 2);
+        int depth = 0;
+        boolean inString = false;
+        for (int i = 0; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (inString) {
+                out.append(c);
+                if (c == '\\') {
+                    out.append(json.charAt(++i));
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    out.append(c);
+                }
+                case '{', '[' -> {
+                    char close = c == '{' ? '}' : ']';
+                    if (i + 1 < json.length() && json.charAt(i + 1) == close) {
+                        // empty containers stay on one line
+                        out.append(c).append(close);
+                        i++;
+                    } else {
+                        out.append(c);
+                        newLine(out, ++depth);
+                    }
+                }
+                case '}', ']' -> {
+                    newLine(out, --depth);
+                    out.append(c);
+                }
+                case ',' -> {
+                    out.append(c);
+                    newLine(out, depth);
+                }
+                case ':' -> out.append(": ");
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static void newLine(StringBuilder out, int depth) {
+        out.append('\n');
+        for (int i = 0; i < depth; i++) {
+            out.append("  ");
+        }
+    }
+
+    static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
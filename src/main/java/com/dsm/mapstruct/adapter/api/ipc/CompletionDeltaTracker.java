@@ -0,0 +1,83 @@
+package com.dsm.mapstruct.adapter.api.ipc;
+
+import com.dsm.mapstruct.core.model.CompletionResult;
+import com.dsm.mapstruct.core.model.FieldInfo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Remembers the last completion list sent on a session (delta mode only) and computes
+ * added/removed entries for the next one.
+ *
+ * A delta is only produced when the client confirms it holds the current version and the new list is a
+ * subset or superset of the previous one for the same resolved type; otherwise the full list is sent and
+ * becomes the new base. Versions increase with every list sent, full or delta.
+ */
+public class CompletionDeltaTracker {
+
+    private CompletionResult last;
+    private long version;
+
+    /**
+     * Outcome of {@link #track}.
+     *
+     * @param version     version of the list now held by the server (and by the client after applying the response)
+     * @param baseVersion version the delta applies to, or null if the full list must be sent
+     * @param added       completions to add (delta only)
+     * @param removed     completion names to remove (delta only)
+     */
+    public record Outcome(long version, Long baseVersion, List<FieldInfo> added, List<String> removed) {
+
+        public boolean isDelta() {
+            return baseVersion != null;
+        }
+    }
+
+    /**
+     * Records the next completion list and decides between a full and a delta response.
+     *
+     * @param next              the new completion result
+     * @param clientBaseVersion version the client currently holds, or null if it holds none (forces a full response)
+     */
+    public synchronized Outcome track(CompletionResult next, Long clientBaseVersion) {
+        CompletionResult previous = last;
+        long previousVersion = version;
+        last = next;
+        version++;
+
+        if (previous == null || clientBaseVersion == null || clientBaseVersion != previousVersion
+                || !Objects.equals(previous.className(), next.className())) {
+            return new Outcome(version, null, List.of(), List.of());
+        }
+
+        Set<FieldInfo> before = new LinkedHashSet<>(previous.completions());
+        Set<FieldInfo> after = new LinkedHashSet<>(next.completions());
+
+        List<FieldInfo> added = new ArrayList<>();
+        for (FieldInfo field : after) {
+            if (!before.contains(field)) {
+                added.add(field);
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        for (FieldInfo field : before) {
+            if (!after.contains(field)) {
+                removed.add(field.name());
+            }
+        }
+
+        // Only pure narrowing or widening is sent as a delta (a changed entry would be remove + add)
+        if (!added.isEmpty() && !removed.isEmpty()) {
+            return new Outcome(version, null, List.of(), List.of());
+        }
+        return new Outcome(version, previousVersion, added, removed);
+    }
+
+    public synchronized void clear() {
+        last = null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.dsm.mapstruct.adapter.api.ipc;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks idle deadlines of all client connections on one shared scheduler thread.
+ *
+ * Each connection has at most one pending deadline check. When it fires and the session saw activity
+ * in the meantime, the check is simply re-armed for the new deadline, so activity itself costs only
+ * a volatile write ({@link IpcSession#touch()}). On expiry only the stale connection is closed and its
+ * session state released; whether the process exits afterwards is left to the {@link ShutdownPolicy}.
+ */
+@Slf4j
+public class ConnectionSupervisor {
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final long idleTimeoutMs;
+    private final ShutdownPolicy shutdownPolicy;
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    public ConnectionSupervisor(long idleTimeoutMs, ShutdownPolicy shutdownPolicy) {
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.shutdownPolicy = shutdownPolicy;
+        this.timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r);
+            thread.setName("MapStruct-IPC-Supervisor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Starts supervising a new connection.
+     *
+     * @param session         the connection's session
+     * @param closeConnection closes the underlying channel; invoked when the idle deadline expires
+     * @return the registration to pass to {@link #connectionClosed(Registration, String)}
+     */
+    public Registration register(IpcSession session, Runnable closeConnection) {
+        Registration registration = new Registration(session, closeConnection);
+        int open = openConnections.incrementAndGet();
+        log.info("New client connected: {} ({} open)", session, open);
+        registration.schedule(idleTimeoutMs);
+        return registration;
+    }
+
+    /**
+     * Must be called by the transport once a connection is gone, for whatever reason.
+     * Idempotent: only the first call releases the session and consults the shutdown policy.
+     */
+    public void connectionClosed(Registration registration, String reason) {
+        if (!registration.closed.compareAndSet(false, true)) {
+            return;
+        }
+        ScheduledFuture<?> deadline = registration.deadline;
+        if (deadline != null) {
+            deadline.cancel(false);
+        }
+        registration.session.release();
+
+        int remaining = openConnections.decrementAndGet();
+        log.info("Closed {} ({}), {} open", registration.session, reason, remaining);
+        if (shutdownPolicy.shouldExit(remaining)) {
+            log.info("Shutting down server - shutdown policy '{}' after {}", shutdownPolicy.optionName(), reason);
+            System.exit(0);
+        }
+    }
+
+    public int openConnections() {
+        return openConnections.get();
+    }
+
+    /**
+     * One supervised connection.
+     */
+    public class Registration {
+
+        private final IpcSession session;
+        private final Runnable closeConnection;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile ScheduledFuture<?> deadline;
+
+        private Registration(IpcSession session, Runnable closeConnection) {
+            this.session = session;
+            this.closeConnection = closeConnection;
+        }
+
+        private void schedule(long delayMs) {
+            deadline = timer.schedule(this::checkDeadline, delayMs, TimeUnit.MILLISECONDS);
+        }
+
+        private void checkDeadline() {
+            if (closed.get()) {
+                return;
+            }
+            long idleMillis = System.currentTimeMillis() - session.lastActivityMillis();
+            if (idleMillis < idleTimeoutMs) {
+                schedule(idleTimeoutMs - idleMillis);
+                return;
+            }
+            log.warn("Client heartbeat timeout ({} ms) for {} - Neovim may have crashed or closed", idleMillis, session);
+            try {
+                closeConnection.run();
+            } catch (Exception e) {
+                log.debug("Error closing timed out connection {}: {}", session, e.getMessage());
+            }
+            connectionClosed(this, "heartbeat timeout");
+        }
+    }
+}
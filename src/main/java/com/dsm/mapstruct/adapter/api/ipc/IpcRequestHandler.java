@@ -0,0 +1,607 @@
+package com.dsm.mapstruct.adapter.api.ipc;
+
+import com.dsm.mapstruct.adapter.api.ipc.codec.BinaryResponseEncoder;
+import com.dsm.mapstruct.adapter.api.ipc.codec.ResponseEncoding;
+import com.dsm.mapstruct.adapter.api.ipc.metrics.IpcRequestEvent;
+import com.dsm.mapstruct.adapter.api.ipc.metrics.RequestMetrics;
+import com.dsm.mapstruct.adapter.api.ipc.metrics.RequestRecorder;
+import com.dsm.mapstruct.adapter.api.ipc.metrics.SlowRequestLog;
+import com.dsm.mapstruct.adapter.api.ipc.metrics.TraceJson;
+import com.dsm.mapstruct.core.cache.ClassLoaderGeneration;
+import com.dsm.mapstruct.core.model.CompletionResult;
+import com.dsm.mapstruct.core.model.SourceParameter;
+import com.dsm.mapstruct.core.schedule.PriorityScheduler;
+import com.dsm.mapstruct.core.trace.RequestTrace;
+import com.dsm.mapstruct.core.usecase.ExplorePathUseCase;
+import com.dsm.mapstruct.core.usecase.ExploreTypeSourceUseCase;
+import com.dsm.mapstruct.core.usecase.WarmupUseCase;
+import com.dsm.mapstruct.core.usecase.helper.SpeculativeLookahead;
+import com.dsm.mapstruct.core.util.ClassResolverUtil;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transport-agnostic IPC request processing: turns one request line into one encoded response.
+ * Shared by the blocking ({@link IpcClientMessageListener}) and selector-based ({@link NioIpcServer}) transports.
+ */
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class IpcRequestHandler {
+
+    private static final Gson gson = new Gson();
+    // requests without a recognizable method share one metrics entry
+    private static final String UNKNOWN_METHOD = "unknown";
+    private static final int DEFAULT_WARMUP_DEPTH = 2;
+    private static final int MAX_WARMUP_DEPTH = 5;
+
+    // created on first use: the server answers ping before any introspection or caching code is loaded
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    ExplorePathUseCase explorePathUseCase = new ExplorePathUseCase();
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    ExploreTypeSourceUseCase exploreTypeSourceUseCase = new ExploreTypeSourceUseCase();
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    ResponseCache responseCache = new ResponseCache();
+    // explore_path requests are interactive, warm-up is batch work and speculation background work
+    PriorityScheduler scheduler = new PriorityScheduler();
+    // warms the member tables of the explore_path navigator
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    WarmupUseCase warmupUseCase = new WarmupUseCase(getExplorePathUseCase().navigator(), scheduler);
+    // opt-in: prefetch the member tables of the types a completion lists, see SpeculativeLookahead
+    boolean speculation = Boolean.getBoolean("mapstruct.speculation");
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    SpeculativeLookahead speculativeLookahead = new SpeculativeLookahead(getExplorePathUseCase().navigator(), scheduler);
+    RequestMetrics metrics = new RequestMetrics();
+    SlowRequestLog slowRequestLog = new SlowRequestLog();
+    RequestRecorder requestRecorder = new RequestRecorder();
+    // per-request info lines are rate limited, a fast typist produces dozens of requests per second
+    LogRateLimiter requestLogLimiter = new LogRateLimiter(Long.getLong("mapstruct.log.requestIntervalMs", 1000));
+
+    /**
+     * Encoded response ready to be written to the client.
+     *
+     * @param payload           response bytes in the session's encoding (JSON line or length-prefixed frame)
+     * @param shutdownRequested true if the client asked the server to shut down after this response
+     */
+    public record IpcResponse(byte[] payload, boolean shutdownRequested) {
+    }
+
+    /**
+     * Handles a single raw request line for the given session.
+     */
+    public IpcResponse handle(String line, IpcSession session) {
+        long startNanos = System.nanoTime();
+        // request line plus its newline terminator
+        long bytesIn = utf8Length(line) + 1;
+        IpcRequestEvent event = new IpcRequestEvent();
+        event.begin();
+        log.debug("Received raw request: {}", line);
+
+        try {
+            JsonObject request = JsonParser.parseString(line).getAsJsonObject();
+            long parsedNanos = System.nanoTime();
+            String id = request.has("id") ? request.get("id").getAsString() : null;
+            String method = request.has("method") ? request.get("method").getAsString() : null;
+
+            // Handle params - can be object or array
+            JsonObject params = new JsonObject();
+            if (request.has("params")) {
+                var paramsElement = request.get("params");
+                if (paramsElement.isJsonObject()) {
+                    params = paramsElement.getAsJsonObject();
+                } else if (paramsElement.isJsonArray()) {
+                    // If it's an array, just use empty object
+                    params = new JsonObject();
+                }
+            }
+
+            if (log.isInfoEnabled()) {
+                long suppressed = requestLogLimiter.tryAcquire();
+                if (suppressed >= 0) {
+                    log.info("Processing request - method: {}, id: {} ({} requests not logged since the previous line)",
+                            method, id, suppressed);
+                }
+            }
+
+            JsonObject response = new JsonObject();
+            if (id != null) {
+                response.addProperty("id", id);
+            }
+            CompletionResult completionResult = null;
+            byte[] splicedPayload = null;
+            ResponseEncoding negotiatedEncoding = null;
+            boolean shutdownRequested = false;
+            boolean knownMethod = true;
+            // diagnostics of the request, reported to JFR
+            String rootClassName = null;
+            int pathDepth = 0;
+            int memberCount = 0;
+            String cacheOutcome = "";
+            RequestTrace requestTrace = RequestTrace.NOOP;
+
+            if (method == null) {
+                knownMethod = false;
+                log.error("Request missing 'method' field");
+                response.addProperty("error", "Missing 'method' field");
+            } else {
+                switch (method) {
+                    case "ping":
+                        log.debug("Handling ping request");
+                        JsonObject pongResult = new JsonObject();
+                        pongResult.addProperty("message", "pong");
+                        response.add("result", pongResult);
+                        break;
+
+                    case "initialize":
+                        log.debug("Handling initialize request");
+                        List<String> encodings = new ArrayList<>();
+                        if (params.has("encodings") && params.get("encodings").isJsonArray()) {
+                            params.get("encodings").getAsJsonArray().forEach(e -> encodings.add(e.getAsString()));
+                        }
+                        negotiatedEncoding = ResponseEncoding.negotiate(encodings);
+                        log.info("Negotiated response encoding: {}", negotiatedEncoding);
+                        JsonObject initializeResult = new JsonObject();
+                        initializeResult.addProperty("encoding", negotiatedEncoding.wireName());
+                        initializeResult.addProperty("framing", negotiatedEncoding.framing());
+                        response.add("result", initializeResult);
+                        break;
+
+                    case "heartbeat":
+                        log.debug("Handling heartbeat request");
+                        JsonObject heartbeatResult = new JsonObject();
+                        heartbeatResult.addProperty("status", "alive");
+                        response.add("result", heartbeatResult);
+                        break;
+
+                    case "shutdown":
+                        log.info("Shutdown requested by client");
+                        JsonObject shutdownResult = new JsonObject();
+                        shutdownResult.addProperty("message", "shutting down");
+                        response.add("result", shutdownResult);
+                        shutdownRequested = true;
+                        break;
+
+                    case "stats":
+                        log.debug("Handling stats request");
+                        response.add("result", statsSnapshot());
+                        break;
+
+                    case "invalidate_caches":
+                        log.info("Cache invalidation requested by client");
+                        long generation = ClassLoaderGeneration.advance();
+                        getResponseCache().invalidateAll();
+                        getExplorePathUseCase().memberTables().invalidateAll();
+                        session.cancelLookahead();
+                        JsonObject invalidateResult = new JsonObject();
+                        invalidateResult.addProperty("generation", generation);
+                        response.add("result", invalidateResult);
+                        break;
+
+                    case "explore_path":
+                        log.debug("Handling explore_path request");
+                        if (speculation) {
+                            // the previous keystroke's guess is stale now
+                            session.cancelLookahead();
+                        }
+                        String pathExpression = params.has("pathExpression") ? params.get("pathExpression").getAsString() : null;
+                        boolean isEnum = params.has("isEnum") && params.get("isEnum").getAsBoolean();
+                        boolean clientFiltering = params.has("clientFiltering") && params.get("clientFiltering").getAsBoolean();
+                        boolean delta = params.has("delta") && params.get("delta").getAsBoolean();
+                        Long baseVersion = params.has("baseVersion") ? params.get("baseVersion").getAsLong() : null;
+                        boolean trace = params.has("trace") && params.get("trace").getAsBoolean();
+                        if (log.isDebugEnabled()) {
+                            log.debug("Path expression: {}, isEnum: {}, clientFiltering: {}", pathExpression, isEnum, clientFiltering);
+                        }
+
+                        // Parse sources array (new protocol)
+                        List<SourceParameter> sources = new ArrayList<>();
+                        if (params.has("sources") && params.get("sources").isJsonArray()) {
+                            Type sourceListType = new TypeToken<List<SourceParameter>>() {
+                            }.getType();
+                            sources = gson.fromJson(params.get("sources"), sourceListType);
+                        }
+
+                        if (sources.isEmpty() || pathExpression == null) {
+                            log.error("Missing required params - sources: {}, pathExpression: {}", sources.isEmpty() ? "empty" : "present", pathExpression);
+                            response.addProperty("error", "Missing required params: sources (array), pathExpression");
+                        } else {
+                            rootClassName = sources.get(0).type();
+                            pathDepth = pathDepth(pathExpression);
+                            cacheOutcome = delta || trace ? "bypass" : "miss";
+                            // delta responses depend on session state and are never served from the cache
+                            ResponseCache.Key cacheKey = delta ? null : new ResponseCache.Key(ClassLoaderGeneration.current(),
+                                    session.encoding(), sources, pathExpression, isEnum, clientFiltering);
+                            // traced requests skip the lookup so the timings describe the real work
+                            ResponseCache.Entry cached = cacheKey == null || trace ? null : getResponseCache().get(cacheKey);
+                            if (cached != null) {
+                                log.debug("Response cache hit for path: {}", pathExpression);
+                                cacheOutcome = "hit";
+                                memberCount = cached.memberCount();
+                                splicedPayload = splice(session, response, cached.encodedResult());
+                                break;
+                            }
+                            // spans are also collected for the slow-request log if configured, but only reported when asked for
+                            requestTrace = trace || slowRequestLog.capturesSpans() ? RequestTrace.start() : RequestTrace.NOOP;
+                            scheduler.interactiveStarted();
+                            try {
+                                requestTrace.span("parseRequest", null, startNanos, parsedNanos);
+                                // Execute path exploration with multi-parameter support
+                                ExplorePathUseCase.ExplorePathParams exploreParams =
+                                        new ExplorePathUseCase.ExplorePathParams(sources, pathExpression, isEnum, clientFiltering);
+                                completionResult = getExplorePathUseCase().explore(exploreParams);
+                                memberCount = completionResult.completions().size();
+                                log.debug("Path exploration completed successfully");
+                                if (speculation && memberCount > 0) {
+                                    session.lookahead(getSpeculativeLookahead().schedule(completionResult.className()));
+                                }
+
+                                if (cacheKey != null) {
+                                    long encodeStart = requestTrace.mark();
+                                    byte[] encodedResult = encodeResult(session, completionResult);
+                                    requestTrace.span("encode", null, encodeStart);
+                                    getResponseCache().put(cacheKey, new ResponseCache.Entry(encodedResult, memberCount));
+                                    if (trace) {
+                                        response.add("timings", toTimingsJson(requestTrace, startNanos));
+                                    }
+                                    splicedPayload = splice(session, response, encodedResult);
+                                    completionResult = null;
+                                }
+
+                                if (delta) {
+                                    CompletionDeltaTracker.Outcome outcome =
+                                            session.completionDeltas().track(completionResult, baseVersion);
+                                    response.addProperty("version", outcome.version());
+                                    if (outcome.isDelta()) {
+                                        if (log.isDebugEnabled()) {
+                                            log.debug("Sending delta against version {}: +{} -{}", outcome.baseVersion(),
+                                                    outcome.added().size(), outcome.removed().size());
+                                        }
+                                        response.add("delta", toDeltaJson(completionResult, outcome));
+                                        completionResult = null;
+                                    }
+                                    if (trace) {
+                                        // delta envelopes are encoded as a whole afterwards, so there is no encode span
+                                        response.add("timings", toTimingsJson(requestTrace, startNanos));
+                                    }
+                                }
+
+                            } catch (Exception | LinkageError e) {
+                                // LinkageError: a type whose own dependencies are missing from the classpath
+                                log.error("Error exploring path: {}", e.getMessage(), e);
+                                response.addProperty("error", "Error exploring path: " + e.getMessage());
+                            } finally {
+                                requestTrace.close();
+                                scheduler.interactiveFinished();
+                            }
+                        }
+                        break;
+
+                    case "warmup":
+                        log.debug("Handling warmup request");
+                        String invalidParam = invalidWarmupParam(params);
+                        if (invalidParam != null) {
+                            log.error("Invalid warmup param: {}", invalidParam);
+                            response.addProperty("error", "Invalid param: " + invalidParam);
+                        } else {
+                            response.add("result", warmup(params));
+                        }
+                        break;
+
+                    case "explore_type_source":
+                        log.debug("Handling explore_type_source request");
+                        String typeName = params.has("typeName") ? params.get("typeName").getAsString() : null;
+
+                        if (typeName == null) {
+                            log.error("Missing required param - typeName: null");
+                            response.addProperty("error", "Missing required param: typeName");
+                        } else {
+                            rootClassName = typeName;
+                            scheduler.interactiveStarted();
+                            try {
+                                log.debug("Executing type source exploration for type: {}", typeName);
+                                // Load the class
+                                Class<?> clazz = ClassResolverUtil.resolveClass(typeName);
+
+                                // Execute type source exploration
+                                ExploreTypeSourceUseCase.ExploreTypeSourceParams exploreParams =
+                                        new ExploreTypeSourceUseCase.ExploreTypeSourceParams(clazz);
+                                String resultJson = getExploreTypeSourceUseCase().execute(exploreParams);
+                                log.debug("Type source exploration completed successfully");
+
+                                // Parse the result and return it
+                                JsonObject resultObj = JsonParser.parseString(resultJson).getAsJsonObject();
+                                response.add("result", resultObj);
+
+                            } catch (ClassNotFoundException e) {
+                                log.error("Class not found: {}", typeName, e);
+                                response.addProperty("error", "Class not found: " + typeName);
+                            } catch (Exception | LinkageError e) {
+                                log.error("Error exploring type source: {}", e.getMessage(), e);
+                                response.addProperty("error", "Error exploring type source: " + e.getMessage());
+                            } finally {
+                                scheduler.interactiveFinished();
+                            }
+                        }
+                        break;
+
+                    default:
+                        knownMethod = false;
+                        log.warn("Unknown method requested: {}", method);
+                        response.addProperty("error", "Unknown method: " + method);
+                }
+            }
+
+            byte[] payload = splicedPayload != null ? splicedPayload : encode(session, response, completionResult);
+            if (negotiatedEncoding != null) {
+                // initialize response goes out in the previous encoding, everything after in the new one
+                session.encoding(negotiatedEncoding);
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            metrics.record(knownMethod ? method : UNKNOWN_METHOD, elapsedNanos, bytesIn, payload.length, response.has("error"));
+            if (slowRequestLog.isSlow(elapsedNanos)) {
+                slowRequestLog.record(new SlowRequestLog.SlowRequest(request, knownMethod ? method : UNKNOWN_METHOD,
+                        session.id(), elapsedNanos, cacheOutcome, memberCount, response.has("error"), requestTrace.spans()));
+            }
+            if (requestRecorder.enabled()) {
+                // only completions are comparable across runs and builds: no uptime, no timings, no jar locations
+                boolean comparable = "explore_path".equals(method) && !response.has("timings");
+                requestRecorder.record(startNanos, session.id(), line, comparable ? payload : null);
+            }
+            if (event.shouldCommit()) {
+                event.method = knownMethod ? method : UNKNOWN_METHOD;
+                event.requestId = id;
+                event.sessionId = session.id();
+                event.className = rootClassName;
+                event.pathDepth = pathDepth;
+                event.memberCount = memberCount;
+                event.cacheOutcome = cacheOutcome;
+                event.bytesIn = bytesIn;
+                event.bytesOut = payload.length;
+                event.error = response.has("error");
+                event.commit();
+            }
+            return new IpcResponse(payload, shutdownRequested);
+        } catch (JsonSyntaxException e) {
+            log.error("Invalid JSON received: {}", line, e);
+            JsonObject errorResponse = new JsonObject();
+            errorResponse.addProperty("error", "Invalid JSON: " + e.getMessage());
+            byte[] payload = encode(session, errorResponse, null);
+            metrics.record(UNKNOWN_METHOD, System.nanoTime() - startNanos, bytesIn, payload.length, true);
+            requestRecorder.record(startNanos, session.id(), line, payload);
+            if (event.shouldCommit()) {
+                event.method = UNKNOWN_METHOD;
+                event.sessionId = session.id();
+                event.cacheOutcome = "";
+                event.bytesIn = bytesIn;
+                event.bytesOut = payload.length;
+                event.error = true;
+                event.commit();
+            }
+            return new IpcResponse(payload, false);
+        }
+    }
+
+    /**
+     * Answers a request whose handling failed unexpectedly, echoing its id if the line has a readable one.
+     */
+    public IpcResponse errorResponse(String line, IpcSession session, Throwable error) {
+        JsonObject response = new JsonObject();
+        try {
+            var id = JsonParser.parseString(line).getAsJsonObject().get("id");
+            if (id != null && id.isJsonPrimitive()) {
+                response.addProperty("id", id.getAsString());
+            }
+        } catch (RuntimeException e) {
+            // not a JSON object, answer without an id
+        }
+        response.addProperty("error", "Internal error: " + (error.getMessage() != null ? error.getMessage() : error.getClass().getName()));
+        return new IpcResponse(encode(session, response, null), false);
+    }
+
+    /**
+     * Checks the value types of the warmup params.
+     *
+     * @return description of the first invalid param, null if all are valid
+     */
+    private static String invalidWarmupParam(JsonObject params) {
+        if (params.has("depth") && !(params.get("depth").isJsonPrimitive() && params.getAsJsonPrimitive("depth").isNumber())) {
+            return "depth (number)";
+        }
+        if (params.has("mapper") && !(params.get("mapper").isJsonPrimitive() && params.getAsJsonPrimitive("mapper").isString())) {
+            return "mapper (string)";
+        }
+        if (params.has("types")) {
+            if (!params.get("types").isJsonArray()) {
+                return "types (array of strings)";
+            }
+            for (var type : params.getAsJsonArray("types")) {
+                if (!(type.isJsonPrimitive() && type.getAsJsonPrimitive().isString())) {
+                    return "types (array of strings)";
+                }
+            }
+        }
+        if (params.has("wait") && !(params.get("wait").isJsonPrimitive() && params.getAsJsonPrimitive("wait").isBoolean())) {
+            return "wait (boolean)";
+        }
+        return null;
+    }
+
+    /**
+     * Schedules the warm-up of the requested types (or a mapper's source and target types) and their
+     * neighbourhood. Answers right away unless the client asks to wait for the warm-up to finish.
+     */
+    private JsonObject warmup(JsonObject params) {
+        int depth = params.has("depth") ? Math.max(0, Math.min(params.get("depth").getAsInt(), MAX_WARMUP_DEPTH)) : DEFAULT_WARMUP_DEPTH;
+        List<Class<?>> roots = new ArrayList<>();
+        List<String> unknown = new ArrayList<>();
+        if (params.has("mapper")) {
+            String mapper = params.get("mapper").getAsString();
+            try {
+                roots.addAll(WarmupUseCase.mapperTypes(ClassResolverUtil.resolveClass(mapper)));
+            } catch (ClassNotFoundException | LinkageError e) {
+                unknown.add(mapper);
+            }
+        }
+        if (params.has("types")) {
+            for (var type : params.get("types").getAsJsonArray()) {
+                try {
+                    roots.add(ClassResolverUtil.resolveClass(type.getAsString()));
+                } catch (ClassNotFoundException | LinkageError e) {
+                    unknown.add(type.getAsString());
+                }
+            }
+        }
+
+        JsonObject result = new JsonObject();
+        result.addProperty("roots", roots.size());
+        result.addProperty("depth", depth);
+        result.add("unknown", gson.toJsonTree(unknown));
+        if (roots.isEmpty()) {
+            return result;
+        }
+        var warmup = getWarmupUseCase().execute(new WarmupUseCase.WarmupParams(roots, depth));
+        if (params.has("wait") && params.get("wait").getAsBoolean()) {
+            WarmupUseCase.WarmupResult finished = warmup.join();
+            result.addProperty("types", finished.types());
+            result.addProperty("failed", finished.failed());
+            result.addProperty("millis", finished.millis());
+        }
+        return result;
+    }
+
+    /**
+     * Encoded length of a string in UTF-8, without encoding it.
+     */
+    private static int utf8Length(String text) {
+        int length = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x800) {
+                // a surrogate pair is 4 bytes for 2 chars, everything else from here on 3 bytes for 1 char
+                length += Character.isSurrogate(c) ? 1 : 2;
+            } else if (c >= 0x80) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Number of segments in a path expression ("" has none, "person.address." has three).
+     */
+    private static int pathDepth(String pathExpression) {
+        if (pathExpression.isEmpty()) {
+            return 0;
+        }
+        int depth = 1;
+        for (int i = 0; i < pathExpression.length(); i++) {
+            if (pathExpression.charAt(i) == '.') {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Server statistics as returned by the {@code stats} method: per-method request metrics and cache effectiveness.
+     */
+    public JsonObject statsSnapshot() {
+        JsonObject stats = new JsonObject();
+        stats.addProperty("uptimeMillis", metrics.uptimeMillis());
+        stats.add("methods", metrics.toJson());
+        stats.add("responseCache", gson.toJsonTree(getResponseCache().stats()));
+        stats.add("memberTables", gson.toJsonTree(getExplorePathUseCase().memberTables().stats()));
+        stats.add("scheduler", gson.toJsonTree(scheduler.stats()));
+        if (speculation) {
+            stats.add("speculation", gson.toJsonTree(getSpeculativeLookahead().stats()));
+        }
+        return stats;
+    }
+
+    /**
+     * Builds the "timings" member of a traced response: total time so far and the recorded spans in order.
+     */
+    private JsonObject toTimingsJson(RequestTrace trace, long startNanos) {
+        JsonObject timings = new JsonObject();
+        timings.addProperty("totalNanos", System.nanoTime() - startNanos);
+        timings.add("spans", TraceJson.spans(trace.spans()));
+        return timings;
+    }
+
+    /**
+     * Builds the "delta" member of a delta response: per-keystroke metadata plus added/removed entries.
+     * Type metadata (className, simpleName, packageName) is unchanged by construction and omitted.
+     */
+    private JsonObject toDeltaJson(CompletionResult result, CompletionDeltaTracker.Outcome outcome) {
+        JsonObject delta = new JsonObject();
+        delta.addProperty("baseVersion", outcome.baseVersion());
+        delta.addProperty("path", result.path());
+        delta.addProperty("isIncomplete", result.isIncomplete());
+        delta.addProperty("resolvedPrefixPath", result.resolvedPrefixPath());
+        delta.add("added", gson.toJsonTree(outcome.added()));
+        delta.add("removed", gson.toJsonTree(outcome.removed()));
+        return delta;
+    }
+
+    /**
+     * Encodes a completion result on its own in the session's encoding, in the form kept by the {@link ResponseCache}.
+     */
+    private byte[] encodeResult(IpcSession session, CompletionResult completion) {
+        if (session.encoding() == ResponseEncoding.MSGPACK) {
+            return BinaryResponseEncoder.encodeCompletion(completion);
+        }
+        return gson.toJson(completion).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends an encoded result to a response envelope (usually just the id, the only per-request part).
+     * Byte-identical to {@link #encode(IpcSession, JsonObject, CompletionResult)} for the same response.
+     */
+    private byte[] splice(IpcSession session, JsonObject envelope, byte[] encodedResult) {
+        if (session.encoding() == ResponseEncoding.MSGPACK) {
+            return BinaryResponseEncoder.spliceFrame(envelope, encodedResult);
+        }
+        String envelopeJson = gson.toJson(envelope);
+        byte[] head = (envelope.size() == 0
+                ? "{\"result\":"
+                : envelopeJson.substring(0, envelopeJson.length() - 1) + ",\"result\":")
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] payload = new byte[head.length + encodedResult.length + 2];
+        System.arraycopy(head, 0, payload, 0, head.length);
+        System.arraycopy(encodedResult, 0, payload, head.length, encodedResult.length);
+        payload[payload.length - 2] = '}';
+        payload[payload.length - 1] = '\n';
+        return payload;
+    }
+
+    /**
+     * Encodes a response in the session's negotiated encoding.
+     * A non-null completion result is attached as "result" (columnar layout for binary encodings).
+     */
+    private byte[] encode(IpcSession session, JsonObject response, CompletionResult completion) {
+        if (session.encoding() == ResponseEncoding.MSGPACK) {
+            byte[] frame = BinaryResponseEncoder.encodeFrame(response, completion);
+            if (log.isDebugEnabled()) {
+                log.debug("Sending binary response: {} bytes", frame.length);
+            }
+            return frame;
+        }
+        if (completion != null) {
+            response.add("result", gson.toJsonTree(completion));
+        }
+        String responseJson = gson.toJson(response);
+        log.debug("Sending response: {}", responseJson);
+        return (responseJson + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,7 +1,8 @@
 package com.dsm.mapstruct.adapter.api.ipc;
 
+import com.dsm.mapstruct.adapter.api.ipc.metrics.RequestRecorder;
+import com.dsm.mapstruct.adapter.api.ipc.metrics.StatsFileWriter;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
 import java.net.StandardProtocolFamily;
@@ -13,14 +14,18 @@ import java.nio.file.Path;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 public class IpcServerRunner {
 
-    // Single-threaded executor for handling client connection (one server per client)
-    private static final ExecutorService clientExecutor = Executors.newSingleThreadExecutor(r -> {
+    private static final long IDLE_TIMEOUT_MS = Long.getLong("mapstruct.ipc.idleTimeoutMs", 30000); // 30 seconds
+
+    // One blocking handler thread per client connection
+    private static final AtomicInteger clientThreadIndex = new AtomicInteger();
+    private static final ExecutorService clientExecutor = Executors.newCachedThreadPool(r -> {
         Thread thread = new Thread(r);
-        thread.setName("MapStruct-Client-Handler");
+        thread.setName("MapStruct-Client-Handler-" + clientThreadIndex.incrementAndGet());
         thread.setDaemon(false);
         return thread;
     });
@@ -37,14 +42,43 @@ public class IpcServerRunner {
         log.info("Java version: {}", System.getProperty("java.version"));
         log.info("User home: {}", System.getProperty("user.home"));
 
-        String socketPath;
-        if (args.length < 1 || StringUtils.isEmpty(socketPath = args[0])) {
+        String socketPath = null;
+        boolean nioTransport = false;
+        ShutdownPolicy shutdownPolicy = ShutdownPolicy.LAST_CLIENT;
+        for (String arg : args) {
+            if (arg.equals("--transport=nio")) {
+                nioTransport = true;
+            } else if (arg.equals("--transport=blocking")) {
+                nioTransport = false;
+            } else if (arg.equals("--verbose")) {
+                // already applied to the console appender by IpcServer before logging started
+            } else if (arg.startsWith("--record=")) {
+                // read by the RequestRecorder of the request handler created below
+                System.setProperty(RequestRecorder.FILE_PROPERTY, arg.substring("--record=".length()));
+            } else if (arg.startsWith("--shutdown=")) {
+                try {
+                    shutdownPolicy = ShutdownPolicy.fromOption(arg.substring("--shutdown=".length()));
+                } catch (IllegalArgumentException e) {
+                    printError(e.getMessage());
+                    printUsage();
+                    return 1;
+                }
+            } else if (socketPath == null) {
+                socketPath = arg;
+            }
+        }
+        if (socketPath == null || socketPath.isEmpty()) {
             log.error("No socket path provided in arguments");
             printUsage();
             return 1;
         }
 
         log.info("Socket path: {}", socketPath);
+        log.info("Shutdown policy: {}, idle timeout: {} ms", shutdownPolicy.optionName(), IDLE_TIMEOUT_MS);
+        ConnectionSupervisor supervisor = new ConnectionSupervisor(IDLE_TIMEOUT_MS, shutdownPolicy);
+        // one handler for all connections, so caches and metrics are shared
+        IpcRequestHandler requestHandler = new IpcRequestHandler();
+        StatsFileWriter.startIfConfigured(requestHandler::statsSnapshot);
 
         try {
             Path path = Path.of(socketPath);
@@ -64,13 +98,18 @@ public class IpcServerRunner {
             // Add shutdown hook to gracefully stop executor
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
                 log.info("JVM shutdown hook triggered");
-                System.out.println("Shutting down client executor...");
                 // Just initiate shutdown, don't wait - let JVM handle it
                 clientExecutor.shutdownNow();
                 log.info("Executor shutdown initiated");
             }));
 
             System.out.println("IPC server started on " + socketPath);
+
+            if (nioTransport) {
+                log.info("Using non-blocking selector transport");
+                new NioIpcServer(server, requestHandler, supervisor).run();
+                return 0;
+            }
             log.info("IPC server ready - waiting for client connections");
 
             while (true) {
@@ -82,18 +121,15 @@ public class IpcServerRunner {
                 clientExecutor.submit(() -> {
                     try {
                         log.debug("Starting client handler thread");
-                        IpcClientMessageListener.handleClient(client);
+                        IpcClientMessageListener.handleClient(client, requestHandler, supervisor);
                     } catch (Exception e) {
                         log.error("Error handling client", e);
-                        System.err.println("Error handling client: " + e.getMessage());
-                        e.printStackTrace(System.err);
                     }
                 });
             }
         } catch (IOException e) {
             // happens when socket disappears or Neovim dies
             log.warn("Socket I/O error - likely client disconnected: {}", e.getMessage());
-            System.out.println("Socket closed, exiting.");
 
 
             // ExplorePathUseCase explorePathUseCase = new ExplorePathUseCase();
@@ -148,7 +184,17 @@ public class IpcServerRunner {
         System.err.println("MapStruct Path Completion - IPC:");
         System.err.println();
         System.err.println("Usage:");
-        System.err.println("  java -cp mapstruct-path-explorer.jar com.dsm.mapstruct.IpcServer [unique process socketPath]");
+        System.err.println("  java -cp mapstruct-path-explorer.jar com.dsm.mapstruct.IpcServer [unique process socketPath] [options]");
+        System.err.println();
+        System.err.println("Options:");
+        System.err.println("  --transport=blocking   one thread per client connection (default)");
+        System.err.println("  --transport=nio        single selector thread with a worker pool, supports many clients");
+        System.err.println("  --shutdown=last-client exit once the last client disconnects or times out (default)");
+        System.err.println("  --shutdown=never       keep running until killed or a 'shutdown' request arrives");
+        System.err.println("  --verbose              also write log output to stdout");
+        System.err.println("  --record=<file>        record every request with timings to a trace file (.gz compresses)");
+        System.err.println("  --train                replay the bundled request corpus, then exit (record an AOT cache");
+        System.err.println("                         with -XX:AOTCacheOutput=<file>, see mapstruct-ipc-server launcher)");
         System.err.println();
         System.err.println("With custom classpath:");
         System.err.println("  java -cp \"mapstruct-path-explorer.jar:path/to/classes\" com.dsm.mapstruct.IpcServer [unique process socketPath]");
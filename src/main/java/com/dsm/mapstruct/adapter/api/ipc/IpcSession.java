@@ -0,0 +1,80 @@
+package com.dsm.mapstruct.adapter.api.ipc;
+
+import com.dsm.mapstruct.adapter.api.ipc.codec.ResponseEncoding;
+import com.dsm.mapstruct.core.usecase.helper.SpeculativeLookahead;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-connection state negotiated by the client (e.g. via the {@code initialize} method).
+ * One instance lives for the lifetime of a client connection.
+ */
+public class IpcSession {
+
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+
+    private final long id = ID_SEQUENCE.incrementAndGet();
+    private volatile ResponseEncoding encoding = ResponseEncoding.JSON;
+    private volatile long lastActivityMillis = System.currentTimeMillis();
+    private final CompletionDeltaTracker completionDeltas = new CompletionDeltaTracker();
+    private volatile SpeculativeLookahead.Lookahead lookahead;
+
+    public long id() {
+        return id;
+    }
+
+    public ResponseEncoding encoding() {
+        return encoding;
+    }
+
+    public void encoding(ResponseEncoding encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * Last completion list sent in delta mode, used to compute the next delta response.
+     */
+    public CompletionDeltaTracker completionDeltas() {
+        return completionDeltas;
+    }
+
+    /**
+     * Cancels the speculative lookahead of the previous completion, if still pending: the session moved on.
+     */
+    public void cancelLookahead() {
+        SpeculativeLookahead.Lookahead previous = lookahead;
+        if (previous != null) {
+            previous.cancel();
+            lookahead = null;
+        }
+    }
+
+    public void lookahead(SpeculativeLookahead.Lookahead lookahead) {
+        this.lookahead = lookahead;
+    }
+
+    /**
+     * Records client activity (any request, including heartbeats).
+     */
+    public void touch() {
+        lastActivityMillis = System.currentTimeMillis();
+    }
+
+    public long lastActivityMillis() {
+        return lastActivityMillis;
+    }
+
+    /**
+     * Releases per-connection state once the connection is closed.
+     */
+    public void release() {
+        encoding = ResponseEncoding.JSON;
+        completionDeltas.clear();
+        cancelLookahead();
+    }
+
+    @Override
+    public String toString() {
+        return "IpcSession#" + id;
+    }
+}
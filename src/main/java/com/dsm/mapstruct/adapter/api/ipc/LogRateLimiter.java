@@ -0,0 +1,33 @@
+package com.dsm.mapstruct.adapter.api.ipc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets at most one log line per interval through and counts the lines it suppressed in between.
+ * Lock-free; a suppressed call costs one clock read and one counter increment.
+ */
+class LogRateLimiter {
+
+    private final long intervalNanos;
+    private final AtomicLong nextAllowedNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder suppressed = new LongAdder();
+
+    LogRateLimiter(long intervalMillis) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    }
+
+    /**
+     * Returns -1 if the line must be dropped, otherwise the number of lines dropped since the last one let through.
+     */
+    long tryAcquire() {
+        long now = System.nanoTime();
+        long next = nextAllowedNanos.get();
+        if (now - next < 0 || !nextAllowedNanos.compareAndSet(next, now + intervalNanos)) {
+            suppressed.increment();
+            return -1;
+        }
+        return suppressed.sumThenReset();
+    }
+}
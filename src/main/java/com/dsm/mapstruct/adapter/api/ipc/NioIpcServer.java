@@ -0,0 +1,284 @@
+package com.dsm.mapstruct.adapter.api.ipc;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking transport: a single selector thread multiplexes all client connections.
+ *
+ * - Reads go into one shared direct buffer and are split into request lines per connection.
+ * - Decoded lines are handed to a fixed worker pool; requests of one connection are processed
+ *   in arrival order (at most one worker per connection at a time).
+ * - Responses are queued per connection and written by the selector thread on OP_WRITE.
+ * - A request that fails unexpectedly is answered with an error; a line longer than
+ *   {@code mapstruct.ipc.maxRequestBytes} (1 MiB) closes the connection.
+ * - Idle deadlines are tracked by the shared {@link ConnectionSupervisor}; an expired connection is
+ *   closed on the selector thread and the {@link ShutdownPolicy} decides whether the process exits.
+ */
+@Slf4j
+public class NioIpcServer {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_REQUEST_BYTES = Integer.getInteger("mapstruct.ipc.maxRequestBytes", 1024 * 1024);
+
+    private final ServerSocketChannel server;
+    private final IpcRequestHandler requestHandler;
+    private final ConnectionSupervisor supervisor;
+    private final Selector selector;
+    private final ExecutorService workers;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
+
+    public NioIpcServer(ServerSocketChannel server, IpcRequestHandler requestHandler,
+                        ConnectionSupervisor supervisor) throws IOException {
+        this.server = server;
+        this.requestHandler = requestHandler;
+        this.supervisor = supervisor;
+        this.selector = Selector.open();
+        AtomicInteger workerIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread thread = new Thread(r);
+            thread.setName("MapStruct-IPC-Worker-" + workerIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the selector loop on the calling thread until the process exits.
+     */
+    public void run() throws IOException {
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        log.info("NIO transport ready - waiting for client connections");
+
+        while (true) {
+            selector.select();
+
+            Runnable task;
+            while ((task = selectorTasks.poll()) != null) {
+                task.run();
+            }
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                try {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        read(key);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        write(key);
+                    }
+                } catch (IOException e) {
+                    log.error("Client connection error: {}", e.getMessage(), e);
+                    close(key, "connection error");
+                }
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        Connection connection = new Connection(channel, new IpcSession());
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ, connection);
+        connection.registration = supervisor.register(connection.session, () -> {
+            // expiry fires on the supervisor thread, the key is owned by the selector thread
+            selectorTasks.add(() -> close(key, "heartbeat timeout"));
+            selector.wakeup();
+        });
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        readBuffer.clear();
+        int read = connection.channel.read(readBuffer);
+        if (read < 0) {
+            log.info("Client disconnected normally (end of stream): {}", connection.session);
+            close(key, "client disconnected");
+            return;
+        }
+        readBuffer.flip();
+        connection.session.touch();
+        if (!connection.consume(readBuffer)) {
+            log.warn("Request line exceeds {} bytes, closing {}", MAX_REQUEST_BYTES, connection.session);
+            close(key, "request too large");
+        }
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        synchronized (connection) {
+            ByteBuffer pending;
+            while ((pending = connection.outbox.peek()) != null) {
+                connection.channel.write(pending);
+                if (pending.hasRemaining()) {
+                    return; // socket buffer full, wait for the next OP_WRITE
+                }
+                connection.outbox.poll();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        }
+        if (connection.shutdownAfterFlush) {
+            log.info("Shutdown requested by client - shutting down server gracefully");
+            System.exit(0);
+        }
+    }
+
+    private void close(SelectionKey key, String reason) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            log.debug("Error closing channel: {}", e.getMessage());
+        }
+        if (key.attachment() instanceof Connection connection && connection.registration != null) {
+            supervisor.connectionClosed(connection.registration, reason);
+        }
+    }
+
+    /**
+     * Queues a response for the selector thread and wakes it up to register write interest.
+     */
+    private void enqueueResponse(Connection connection, IpcRequestHandler.IpcResponse response) {
+        synchronized (connection) {
+            connection.outbox.add(ByteBuffer.wrap(response.payload()));
+            if (response.shutdownRequested()) {
+                connection.shutdownAfterFlush = true;
+            }
+        }
+        selectorTasks.add(() -> {
+            SelectionKey key = connection.channel.keyFor(selector);
+            if (key != null && key.isValid()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        });
+        selector.wakeup();
+    }
+
+    /**
+     * Per-connection state owned by the selector thread (line accumulation)
+     * and by at most one worker at a time (request processing).
+     */
+    private class Connection {
+
+        final SocketChannel channel;
+        final IpcSession session;
+        final Queue<ByteBuffer> outbox = new ArrayDeque<>();
+        final Queue<String> inbox = new ArrayDeque<>();
+        volatile boolean shutdownAfterFlush;
+        ConnectionSupervisor.Registration registration;
+        boolean processing;
+        byte[] lineBuffer = new byte[1024];
+        int lineLength;
+
+        Connection(SocketChannel channel, IpcSession session) {
+            this.channel = channel;
+            this.session = session;
+        }
+
+        /**
+         * Appends freshly read bytes and dispatches every complete (newline-terminated) request line.
+         * An incomplete trailing line stays buffered until the next read.
+         *
+         * @return false if a line exceeds {@code mapstruct.ipc.maxRequestBytes}; nothing after it is dispatched
+         */
+        boolean consume(ByteBuffer buffer) {
+            int scanFrom = lineLength;
+            int required = lineLength + buffer.remaining();
+            if (required > lineBuffer.length) {
+                lineBuffer = Arrays.copyOf(lineBuffer, Math.max(required, lineBuffer.length * 2));
+            }
+            int count = buffer.remaining();
+            buffer.get(lineBuffer, lineLength, count);
+            lineLength += count;
+
+            int lineStart = 0;
+            for (int i = scanFrom; i < lineLength; i++) {
+                if (lineBuffer[i] == '\n') {
+                    if (i - lineStart > MAX_REQUEST_BYTES) {
+                        return false;
+                    }
+                    int end = i > lineStart && lineBuffer[i - 1] == '\r' ? i - 1 : i;
+                    dispatch(new String(lineBuffer, lineStart, end - lineStart, StandardCharsets.UTF_8));
+                    lineStart = i + 1;
+                }
+            }
+            if (lineStart > 0) {
+                System.arraycopy(lineBuffer, lineStart, lineBuffer, 0, lineLength - lineStart);
+                lineLength -= lineStart;
+            }
+            return lineLength <= MAX_REQUEST_BYTES;
+        }
+
+        /**
+         * Queues a request line; starts a worker drain unless one is already running for this connection.
+         */
+        void dispatch(String line) {
+            synchronized (inbox) {
+                inbox.add(line);
+                if (processing) {
+                    return;
+                }
+                processing = true;
+            }
+            workers.execute(this::drain);
+        }
+
+        private void drain() {
+            boolean drained = false;
+            try {
+                while (true) {
+                    String line;
+                    synchronized (inbox) {
+                        line = inbox.poll();
+                        if (line == null) {
+                            processing = false;
+                            drained = true;
+                            return;
+                        }
+                    }
+                    try {
+                        enqueueResponse(this, requestHandler.handle(line, session));
+                    } catch (Exception | LinkageError e) {
+                        log.error("Error handling request for {}", session, e);
+                        enqueueResponse(this, requestHandler.errorResponse(line, session, e));
+                    }
+                }
+            } finally {
+                if (!drained) {
+                    // an Error escaped: the next request starts a new drain instead of waiting forever
+                    synchronized (inbox) {
+                        processing = false;
+                    }
+                }
+            }
+        }
+    }
+}
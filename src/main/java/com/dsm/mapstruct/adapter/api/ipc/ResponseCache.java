@@ -0,0 +1,108 @@
+package com.dsm.mapstruct.adapter.api.ipc;
+
+import com.dsm.mapstruct.adapter.api.ipc.codec.ResponseEncoding;
+import com.dsm.mapstruct.core.cache.ClassLoaderGeneration;
+import com.dsm.mapstruct.core.jfr.CacheEvictionEvent;
+import com.dsm.mapstruct.core.model.SourceParameter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Bounded cache of already-encoded {@code explore_path} results keyed by the request's members (see {@link Key}).
+ *
+ * Values are the encoded "result" member only (JSON text or MessagePack bytes), so serving a hit is just
+ * splicing the request id into the envelope. Entries are weighed by their size in bytes.
+ */
+@Slf4j
+public class ResponseCache {
+
+    private static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    private final Cache<Key, Entry> cache;
+
+    /**
+     * Members of an explore_path request that determine its result: independent of the request id, JSON member
+     * order and formatting, with absent flags resolved to their defaults. The path is not normalized, not even the
+     * partial last segment in client filtering mode, because the result echoes it. Those clients filter locally
+     * and only ask again after the next '.', so they rarely repeat a path with a different fragment.
+     */
+    public record Key(long generation,
+                      ResponseEncoding encoding,
+                      List<SourceParameter> sources,
+                      String pathExpression,
+                      boolean isEnum,
+                      boolean clientFiltering) {
+    }
+
+    /**
+     * Cached value.
+     *
+     * @param encodedResult the encoded "result" member
+     * @param memberCount   number of completions in it, for metrics and diagnostics of cache hits
+     */
+    public record Entry(byte[] encodedResult, int memberCount) {
+    }
+
+    /**
+     * Snapshot of cache effectiveness.
+     */
+    public record Stats(long hits, long misses, long evictions, long entries, long weightBytes, double hitRate) {
+    }
+
+    public ResponseCache() {
+        this(Long.getLong("mapstruct.cache.responses.maxBytes", DEFAULT_MAX_BYTES));
+    }
+
+    public ResponseCache(long maxBytes) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry value) -> value.encodedResult().length)
+                .removalListener(ResponseCache::onRemoval)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached entry for the key, or null on a miss.
+     */
+    public Entry get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(Key key, Entry entry) {
+        // a result computed while the generation advanced must not outlive the invalidation
+        if (key.generation() == ClassLoaderGeneration.current()) {
+            cache.put(key, entry);
+        }
+    }
+
+    /**
+     * Drops every entry; called when the class loader generation advances.
+     */
+    public void invalidateAll() {
+        log.info("Invalidating response cache: {}", stats());
+        cache.invalidateAll();
+    }
+
+    public Stats stats() {
+        CacheStats stats = cache.stats();
+        long weight = 0;
+        for (Entry value : cache.asMap().values()) {
+            weight += value.encodedResult().length;
+        }
+        return new Stats(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.size(), weight, stats.hitRate());
+    }
+
+    private static void onRemoval(RemovalNotification<Key, Entry> notification) {
+        if (notification.wasEvicted() && notification.getKey() != null && notification.getValue() != null) {
+            Key key = notification.getKey();
+            CacheEvictionEvent.emit("responses", key.sources().get(0).type(), key.pathExpression(),
+                    notification.getValue().encodedResult().length, key.generation());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.dsm.mapstruct.adapter.api.ipc;
+
+/**
+ * Decides whether the server process should exit after a client connection was closed
+ * (disconnect, I/O error or idle timeout). Closing a connection itself never stops the process.
+ * An explicit {@code shutdown} request always exits regardless of the policy.
+ */
+public enum ShutdownPolicy {
+
+    /**
+     * Exit once no client connections remain (one server per editor instance). Default.
+     */
+    LAST_CLIENT("last-client") {
+        @Override
+        public boolean shouldExit(int remainingConnections) {
+            return remainingConnections == 0;
+        }
+    },
+
+    /**
+     * Keep running until killed or asked to shut down (shared workspace daemon).
+     */
+    NEVER("never") {
+        @Override
+        public boolean shouldExit(int remainingConnections) {
+            return false;
+        }
+    };
+
+    private final String optionName;
+
+    ShutdownPolicy(String optionName) {
+        this.optionName = optionName;
+    }
+
+    public abstract boolean shouldExit(int remainingConnections);
+
+    public String optionName() {
+        return optionName;
+    }
+
+    /**
+     * Parses the value of the {@code --shutdown=} command-line option.
+     */
+    public static ShutdownPolicy fromOption(String value) {
+        for (ShutdownPolicy policy : values()) {
+            if (policy.optionName.equalsIgnoreCase(value)) {
+                return policy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown shutdown policy: " + value);
+    }
+}
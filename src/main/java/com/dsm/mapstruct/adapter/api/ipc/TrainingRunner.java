@@ -0,0 +1,152 @@
+package com.dsm.mapstruct.adapter.api.ipc;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@code --train} mode: starts the server in-process on a temporary socket and replays the bundled request corpus
+ * against it as a regular client, so a JVM started with {@code -XX:AOTCacheOutput} records the classes, linkage and
+ * profiles of real request handling into an AOT cache.
+ *
+ * Every round uses a fresh connection (the corpus switches the connection to MessagePack near its end)
+ * and starts with cold caches (the corpus ends with {@code invalidate_caches}).
+ */
+@Slf4j
+public class TrainingRunner {
+
+    private static final String CORPUS_RESOURCE = "/training/corpus.jsonl";
+    private static final int DEFAULT_ROUNDS = 20;
+
+    /**
+     * Runs the training and returns an exit code; the caller exits the JVM afterwards,
+     * which is when the AOT cache gets written.
+     *
+     * @param args server options to train with (e.g. {@code --transport=nio}); {@code --train} itself is ignored
+     */
+    public static int run(String[] args) {
+        int rounds = Integer.getInteger("mapstruct.train.rounds", DEFAULT_ROUNDS);
+        try {
+            List<String> corpus = loadCorpus();
+            Path socketPath = Files.createTempDirectory("mapstruct-train").resolve("train.sock");
+            startServer(socketPath, args);
+
+            long start = System.nanoTime();
+            int requests = 0;
+            for (int round = 0; round < rounds; round++) {
+                requests += replay(socketPath, corpus);
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.println("Training finished: " + requests + " requests in " + rounds + " rounds, " + elapsedMillis + " ms");
+            log.info("Training finished: {} requests in {} rounds, {} ms", requests, rounds, elapsedMillis);
+            Files.deleteIfExists(socketPath);
+            Files.deleteIfExists(socketPath.getParent());
+            return 0;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            log.error("Training failed", e);
+            System.err.println("Error: training failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static List<String> loadCorpus() throws IOException {
+        try (InputStream in = Objects.requireNonNull(TrainingRunner.class.getResourceAsStream(CORPUS_RESOURCE),
+                "training corpus missing from the jar");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<String> corpus = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    corpus.add(line);
+                }
+            }
+            return corpus;
+        }
+    }
+
+    private static void startServer(Path socketPath, String[] args) throws InterruptedException {
+        List<String> serverArgs = new ArrayList<>();
+        serverArgs.add(socketPath.toString());
+        serverArgs.add("--shutdown=never");
+        for (String arg : args) {
+            if (arg.startsWith("--transport=")) {
+                serverArgs.add(arg);
+            }
+        }
+        Thread server = new Thread(() -> IpcServerRunner.run(serverArgs.toArray(String[]::new)), "MapStruct-Training-Server");
+        server.setDaemon(true);
+        server.start();
+
+        // the socket file appears on bind, slightly before the server listens: probe with a real connection
+        for (int attempt = 0; attempt < 100; attempt++) {
+            if (Files.exists(socketPath)) {
+                try (SocketChannel probe = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+                    probe.connect(UnixDomainSocketAddress.of(socketPath));
+                    return;
+                } catch (IOException e) {
+                    log.debug("Training server not accepting yet: {}", e.getMessage());
+                }
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("training server did not start on " + socketPath);
+    }
+
+    /**
+     * Sends every corpus request on a new connection and reads its response, following the encoding switch.
+     */
+    private static int replay(Path socketPath, List<String> corpus) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+            OutputStream out = Channels.newOutputStream(channel);
+            DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+
+            boolean framed = false;
+            for (String request : corpus) {
+                out.write((request + "\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                if (framed) {
+                    in.readFully(new byte[in.readInt()]);
+                } else {
+                    String response = readLine(in);
+                    if (request.contains("\"initialize\"")) {
+                        JsonObject result = JsonParser.parseString(response).getAsJsonObject().getAsJsonObject("result");
+                        framed = "length-prefixed".equals(result.get("framing").getAsString());
+                    }
+                }
+            }
+            return corpus.size();
+        }
+    }
+
+    private static String readLine(DataInputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new IOException("server closed the connection");
+            }
+            line.write(b);
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+}
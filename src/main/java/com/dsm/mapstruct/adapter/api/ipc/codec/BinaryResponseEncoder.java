@@ -0,0 +1,115 @@
+package com.dsm.mapstruct.adapter.api.ipc.codec;
+
+import com.dsm.mapstruct.core.model.CompletionResult;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import lombok.experimental.UtilityClass;
+
+import java.util.Map;
+
+/**
+ * Encodes IPC response envelopes ({"id", "result" | "error"}) as length-prefixed MessagePack frames.
+ * Generic results are converted from their JSON tree; completion results use the columnar layout
+ * from {@link CompletionResultBinaryEncoder}.
+ */
+@UtilityClass
+public class BinaryResponseEncoder {
+
+    /**
+     * Encodes a response frame.
+     *
+     * @param response   the response envelope (id, error, or result for non-completion methods)
+     * @param completion completion result to encode as "result", or null to use the envelope's own result
+     * @return the frame bytes including the 4-byte length prefix
+     */
+    public static byte[] encodeFrame(JsonObject response, CompletionResult completion) {
+        MessagePackWriter writer = new MessagePackWriter(completion == null ? 128 : 64 + completion.completions().size() * 24);
+
+        int entries = response.size();
+        if (completion != null && !response.has("result")) {
+            entries++;
+        }
+        writer.packMapHeader(entries);
+
+        for (Map.Entry<String, JsonElement> entry : response.entrySet()) {
+            if (completion != null && entry.getKey().equals("result")) {
+                continue;
+            }
+            writer.packString(entry.getKey());
+            writeElement(entry.getValue(), writer);
+        }
+        if (completion != null) {
+            writer.packString("result");
+            CompletionResultBinaryEncoder.encode(completion, writer);
+        }
+
+        return writer.toFrame();
+    }
+
+    /**
+     * Encodes a completion result on its own (no envelope, no length prefix) so it can be cached
+     * and later spliced into frames with {@link #spliceFrame(JsonObject, byte[])}.
+     */
+    public static byte[] encodeCompletion(CompletionResult completion) {
+        MessagePackWriter writer = new MessagePackWriter(64 + completion.completions().size() * 24);
+        CompletionResultBinaryEncoder.encode(completion, writer);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Builds a frame from a response envelope (id and other members, without "result") and an already encoded result.
+     * Produces the same bytes as {@link #encodeFrame(JsonObject, CompletionResult)} for that response.
+     */
+    public static byte[] spliceFrame(JsonObject envelope, byte[] encodedResult) {
+        MessagePackWriter writer = new MessagePackWriter(encodedResult.length + 32);
+        writer.packMapHeader(envelope.size() + 1);
+        for (Map.Entry<String, JsonElement> entry : envelope.entrySet()) {
+            writer.packString(entry.getKey());
+            writeElement(entry.getValue(), writer);
+        }
+        writer.packString("result");
+        writer.packEncoded(encodedResult);
+        return writer.toFrame();
+    }
+
+    /**
+     * Writes an arbitrary JSON tree as MessagePack.
+     */
+    public static void writeElement(JsonElement element, MessagePackWriter writer) {
+        if (element == null || element.isJsonNull()) {
+            writer.packNil();
+        } else if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            writer.packMapHeader(object.size());
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                writer.packString(entry.getKey());
+                writeElement(entry.getValue(), writer);
+            }
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            writer.packArrayHeader(array.size());
+            for (JsonElement item : array) {
+                writeElement(item, writer);
+            }
+        } else {
+            writePrimitive(element.getAsJsonPrimitive(), writer);
+        }
+    }
+
+    private static void writePrimitive(JsonPrimitive primitive, MessagePackWriter writer) {
+        if (primitive.isBoolean()) {
+            writer.packBoolean(primitive.getAsBoolean());
+        } else if (primitive.isNumber()) {
+            double value = primitive.getAsDouble();
+            if (value == Math.rint(value) && Math.abs(value) < 0x1p53) {
+                writer.packLong(primitive.getAsLong());
+            } else {
+                writer.packDouble(value);
+            }
+        } else {
+            writer.packString(primitive.getAsString());
+        }
+    }
+}
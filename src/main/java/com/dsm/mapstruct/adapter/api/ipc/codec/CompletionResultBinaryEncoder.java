@@ -0,0 +1,91 @@
+package com.dsm.mapstruct.adapter.api.ipc.codec;
+
+import com.dsm.mapstruct.core.model.CompletionResult;
+import com.dsm.mapstruct.core.model.FieldInfo;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes a {@link CompletionResult} into MessagePack using a columnar layout.
+ *
+ * Instead of repeating {"name", "type", "kind"} keys for every completion, the result is written as:
+ * <pre>
+ * {
+ *   "className": str, "simpleName": str, "packageName": str, "path": str,
+ *   "isIncomplete": bool, "resolvedPrefixPath": str,
+ *   "strings":   [str, ...],      // deduplicated string table (names and type names)
+ *   "names":     [int, ...],      // index into "strings" per completion
+ *   "types":     [int, ...],      // index into "strings" per completion
+ *   "kinds":     bin,             // one byte per completion, index into "kindNames"
+ *   "kindNames": [str, ...]       // FieldKind names by ordinal
+ * }
+ * </pre>
+ */
+@UtilityClass
+public class CompletionResultBinaryEncoder {
+
+    private static final FieldInfo.FieldKind[] KINDS = FieldInfo.FieldKind.values();
+
+    public static void encode(CompletionResult result, MessagePackWriter writer) {
+        List<FieldInfo> completions = result.completions();
+        int count = completions.size();
+
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        int[] nameIndexes = new int[count];
+        int[] typeIndexes = new int[count];
+        byte[] kinds = new byte[count];
+
+        for (int i = 0; i < count; i++) {
+            FieldInfo field = completions.get(i);
+            nameIndexes[i] = intern(field.name(), strings, stringIndexes);
+            typeIndexes[i] = intern(field.type(), strings, stringIndexes);
+            kinds[i] = (byte) field.kind().ordinal();
+        }
+
+        writer.packMapHeader(11);
+        writer.packString("className").packString(result.className());
+        writer.packString("simpleName").packString(result.simpleName());
+        writer.packString("packageName").packString(result.packageName());
+        writer.packString("path").packString(result.path());
+        writer.packString("isIncomplete").packBoolean(result.isIncomplete());
+        writer.packString("resolvedPrefixPath").packString(result.resolvedPrefixPath());
+
+        writer.packString("strings").packArrayHeader(strings.size());
+        for (String value : strings) {
+            writer.packString(value);
+        }
+
+        writer.packString("names").packArrayHeader(count);
+        for (int index : nameIndexes) {
+            writer.packLong(index);
+        }
+
+        writer.packString("types").packArrayHeader(count);
+        for (int index : typeIndexes) {
+            writer.packLong(index);
+        }
+
+        writer.packString("kinds").packBinary(kinds);
+
+        writer.packString("kindNames").packArrayHeader(KINDS.length);
+        for (FieldInfo.FieldKind kind : KINDS) {
+            writer.packString(kind.name());
+        }
+    }
+
+    private static int intern(String value, List<String> strings, Map<String, Integer> stringIndexes) {
+        String key = value == null ? "" : value;
+        Integer index = stringIndexes.get(key);
+        if (index == null) {
+            index = strings.size();
+            strings.add(key);
+            stringIndexes.put(key, index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,186 @@
+package com.dsm.mapstruct.adapter.api.ipc.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal MessagePack writer covering the subset of the format used by IPC responses:
+ * nil, booleans, integers, doubles, strings, binary, arrays and maps.
+ * Writes into a growable heap buffer; not thread-safe.
+ */
+public class MessagePackWriter {
+
+    private byte[] buffer;
+    private int size;
+
+    public MessagePackWriter() {
+        this(256);
+    }
+
+    public MessagePackWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public MessagePackWriter packNil() {
+        ensureCapacity(1);
+        buffer[size++] = (byte) 0xc0;
+        return this;
+    }
+
+    public MessagePackWriter packBoolean(boolean value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) (value ? 0xc3 : 0xc2);
+        return this;
+    }
+
+    public MessagePackWriter packLong(long value) {
+        if (value >= 0) {
+            if (value < 128) {
+                writeByte((int) value);                       // positive fixint
+            } else if (value <= 0xff) {
+                writeByte(0xcc).writeByte((int) value);       // uint 8
+            } else if (value <= 0xffff) {
+                writeByte(0xcd).writeShort((int) value);      // uint 16
+            } else if (value <= 0xffffffffL) {
+                writeByte(0xce).writeInt((int) value);        // uint 32
+            } else {
+                writeByte(0xcf).writeLong(value);             // uint 64
+            }
+        } else {
+            if (value >= -32) {
+                writeByte((int) value);                       // negative fixint
+            } else if (value >= Byte.MIN_VALUE) {
+                writeByte(0xd0).writeByte((int) value);       // int 8
+            } else if (value >= Short.MIN_VALUE) {
+                writeByte(0xd1).writeShort((int) value);      // int 16
+            } else if (value >= Integer.MIN_VALUE) {
+                writeByte(0xd2).writeInt((int) value);        // int 32
+            } else {
+                writeByte(0xd3).writeLong(value);             // int 64
+            }
+        }
+        return this;
+    }
+
+    public MessagePackWriter packDouble(double value) {
+        return writeByte(0xcb).writeLong(Double.doubleToLongBits(value));
+    }
+
+    public MessagePackWriter packString(String value) {
+        if (value == null) {
+            return packNil();
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        if (length < 32) {
+            writeByte(0xa0 | length);
+        } else if (length <= 0xff) {
+            writeByte(0xd9).writeByte(length);
+        } else if (length <= 0xffff) {
+            writeByte(0xda).writeShort(length);
+        } else {
+            writeByte(0xdb).writeInt(length);
+        }
+        return writeBytes(bytes);
+    }
+
+    public MessagePackWriter packBinary(byte[] value) {
+        int length = value.length;
+        if (length <= 0xff) {
+            writeByte(0xc4).writeByte(length);
+        } else if (length <= 0xffff) {
+            writeByte(0xc5).writeShort(length);
+        } else {
+            writeByte(0xc6).writeInt(length);
+        }
+        return writeBytes(value);
+    }
+
+    public MessagePackWriter packArrayHeader(int length) {
+        if (length < 16) {
+            return writeByte(0x90 | length);
+        } else if (length <= 0xffff) {
+            return writeByte(0xdc).writeShort(length);
+        }
+        return writeByte(0xdd).writeInt(length);
+    }
+
+    public MessagePackWriter packMapHeader(int entries) {
+        if (entries < 16) {
+            return writeByte(0x80 | entries);
+        } else if (entries <= 0xffff) {
+            return writeByte(0xde).writeShort(entries);
+        }
+        return writeByte(0xdf).writeInt(entries);
+    }
+
+    /**
+     * Appends a value that is already MessagePack-encoded (e.g. a cached result).
+     */
+    public MessagePackWriter packEncoded(byte[] encodedValue) {
+        return writeBytes(encodedValue);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * Returns the written payload prefixed by its 4-byte big-endian length,
+     * ready to be written as one frame of the length-prefixed framing.
+     */
+    public byte[] toFrame() {
+        byte[] frame = new byte[size + 4];
+        frame[0] = (byte) (size >>> 24);
+        frame[1] = (byte) (size >>> 16);
+        frame[2] = (byte) (size >>> 8);
+        frame[3] = (byte) size;
+        System.arraycopy(buffer, 0, frame, 4, size);
+        return frame;
+    }
+
+    private MessagePackWriter writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    private MessagePackWriter writeShort(int value) {
+        ensureCapacity(2);
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    private MessagePackWriter writeInt(int value) {
+        ensureCapacity(4);
+        buffer[size++] = (byte) (value >>> 24);
+        buffer[size++] = (byte) (value >>> 16);
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    private MessagePackWriter writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        return writeInt((int) value);
+    }
+
+    private MessagePackWriter writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    private void ensureCapacity(int additional) {
+        int required = size + additional;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+}
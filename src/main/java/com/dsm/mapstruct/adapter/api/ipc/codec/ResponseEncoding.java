@@ -0,0 +1,50 @@
+package com.dsm.mapstruct.adapter.api.ipc.codec;
+
+import java.util.List;
+
+/**
+ * Wire encodings a client can negotiate for server responses via the {@code initialize} method.
+ * Requests are always sent as JSON lines; only the server -> client direction changes.
+ */
+public enum ResponseEncoding {
+    /**
+     * Default: one JSON object per line.
+     */
+    JSON("json", "newline"),
+    /**
+     * MessagePack payloads, each prefixed by a 4-byte big-endian length.
+     * Completion lists are sent in a columnar layout (see {@link CompletionResultBinaryEncoder}).
+     */
+    MSGPACK("msgpack", "length-prefixed");
+
+    private final String wireName;
+    private final String framing;
+
+    ResponseEncoding(String wireName, String framing) {
+        this.wireName = wireName;
+        this.framing = framing;
+    }
+
+    public String wireName() {
+        return wireName;
+    }
+
+    public String framing() {
+        return framing;
+    }
+
+    /**
+     * Picks the first encoding from the client preference list that the server supports.
+     * Unknown names (e.g. "cbor") are skipped; falls back to JSON.
+     */
+    public static ResponseEncoding negotiate(List<String> clientPreferences) {
+        for (String preference : clientPreferences) {
+            for (ResponseEncoding encoding : values()) {
+                if (encoding.wireName.equalsIgnoreCase(preference)) {
+                    return encoding;
+                }
+            }
+        }
+        return JSON;
+    }
+}
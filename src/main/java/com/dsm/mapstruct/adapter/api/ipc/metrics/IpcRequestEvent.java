@@ -0,0 +1,56 @@
+package com.dsm.mapstruct.adapter.api.ipc.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Handling of one IPC request, from the received line to the encoded response.
+ */
+@Name("com.dsm.mapstruct.IpcRequest")
+@Label("IPC Request")
+@Category({"MapStruct Path Explorer", "IPC"})
+@Description("Handling of one IPC request, from the received line to the encoded response")
+@StackTrace(false)
+public class IpcRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Request Id")
+    public String requestId;
+
+    @Label("Session")
+    public long sessionId;
+
+    @Label("Root Class Name")
+    @Description("Type of the first source parameter (explore_path) or the explored type (explore_type_source)")
+    public String className;
+
+    @Label("Path Depth")
+    @Description("Number of segments in the path expression")
+    public int pathDepth;
+
+    @Label("Member Count")
+    @Description("Completions in the response")
+    public int memberCount;
+
+    @Label("Response Cache Outcome")
+    @Description("hit, miss or bypass for explore_path, empty otherwise")
+    public String cacheOutcome;
+
+    @Label("Bytes In")
+    @DataAmount
+    public long bytesIn;
+
+    @Label("Bytes Out")
+    @DataAmount
+    public long bytesOut;
+
+    @Label("Error")
+    public boolean error;
+}
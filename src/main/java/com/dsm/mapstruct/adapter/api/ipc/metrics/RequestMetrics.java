@@ -0,0 +1,80 @@
+package com.dsm.mapstruct.adapter.api.ipc.metrics;
+
+import com.google.gson.JsonObject;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-method request counters and latency histograms of the IPC server.
+ */
+public class RequestMetrics {
+
+    private final long startedAtMillis = System.currentTimeMillis();
+    private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    private static class MethodMetrics {
+        final LatencyHistogram latencyNanos = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder bytesIn = new LongAdder();
+        final LongAdder bytesOut = new LongAdder();
+    }
+
+    /**
+     * Records one handled request.
+     *
+     * @param method       method name; callers map unknown methods to a single name to keep this map bounded
+     * @param elapsedNanos time from receiving the request line to the encoded response
+     * @param bytesIn      request size on the wire
+     * @param bytesOut     response size on the wire
+     * @param error        true if the response carried an error
+     */
+    public void record(String method, long elapsedNanos, long bytesIn, long bytesOut, boolean error) {
+        MethodMetrics metrics = methods.computeIfAbsent(method, m -> new MethodMetrics());
+        metrics.latencyNanos.record(elapsedNanos);
+        metrics.bytesIn.add(bytesIn);
+        metrics.bytesOut.add(bytesOut);
+        if (error) {
+            metrics.errors.increment();
+        }
+    }
+
+    public long uptimeMillis() {
+        return System.currentTimeMillis() - startedAtMillis;
+    }
+
+    /**
+     * Snapshot of all methods seen so far, latencies in microseconds.
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        for (Map.Entry<String, MethodMetrics> entry : new TreeMap<>(methods).entrySet()) {
+            MethodMetrics metrics = entry.getValue();
+            LatencyHistogram latency = metrics.latencyNanos;
+
+            JsonObject latencyJson = new JsonObject();
+            latencyJson.addProperty("p50", micros(latency.percentile(50)));
+            latencyJson.addProperty("p90", micros(latency.percentile(90)));
+            latencyJson.addProperty("p99", micros(latency.percentile(99)));
+            latencyJson.addProperty("p999", micros(latency.percentile(99.9)));
+            latencyJson.addProperty("max", micros(latency.max()));
+            latencyJson.addProperty("mean", micros(latency.mean()));
+
+            JsonObject methodJson = new JsonObject();
+            methodJson.addProperty("requests", latency.count());
+            methodJson.addProperty("errors", metrics.errors.sum());
+            methodJson.addProperty("bytesIn", metrics.bytesIn.sum());
+            methodJson.addProperty("bytesOut", metrics.bytesOut.sum());
+            methodJson.add("latencyMicros", latencyJson);
+            json.add(entry.getKey(), methodJson);
+        }
+        return json;
+    }
+
+    private static double micros(double nanos) {
+        return Math.round(nanos / 100.0) / 10.0;
+    }
+}
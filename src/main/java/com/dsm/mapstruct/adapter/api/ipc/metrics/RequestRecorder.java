@@ -0,0 +1,188 @@
+package com.dsm.mapstruct.adapter.api.ipc.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records every inbound request to a trace file for later replay (see {@code TraceReplayer} in the benchmarks).
+ *
+ * Enabled by {@code -Dmapstruct.record.file=<path>} (or the server's {@code --record=<path>} option); a path ending in
+ * {@code .gz} is gzip-compressed. One line per request, after a {@code #} header line:
+ *
+ * <pre>
+ * arrivalMicros TAB sessionId TAB responseHash TAB request line
+ * </pre>
+ *
+ * - {@code arrivalMicros} is relative to the start of the recording.
+ * - {@code responseHash} is a CRC32C of the encoded response, or {@code -} for responses that legitimately differ
+ *   between runs (stats, timings, type source locations); the replayer uses it to detect changed responses.
+ * - Lines are written in completion order, so requests of different sessions may appear slightly out of
+ *   arrival order.
+ *
+ * Requests are handed to a background writer through a bounded queue; if the writer falls behind, requests
+ * are dropped (and counted) rather than delaying responses.
+ */
+@Slf4j
+public class RequestRecorder {
+
+    public static final String FILE_PROPERTY = "mapstruct.record.file";
+    public static final String HEADER_PREFIX = "# mapstruct-trace v1";
+    public static final String NO_HASH = "-";
+
+    private static final int QUEUE_CAPACITY = 8192;
+
+    private final long originNanos = System.nanoTime();
+    private final BlockingQueue<String> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Path file;
+
+    /**
+     * Recorder configured from {@code mapstruct.record.file}; disabled when the property is not set.
+     */
+    public RequestRecorder() {
+        this(System.getProperty(FILE_PROPERTY));
+    }
+
+    public RequestRecorder(String file) {
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+        Writer writer = null;
+        if (this.file != null) {
+            try {
+                writer = open(this.file);
+            } catch (IOException e) {
+                log.error("Cannot open request trace file {}, recording disabled", file, e);
+            }
+        }
+        this.queue = writer == null ? null : new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        if (writer == null) {
+            return;
+        }
+        Writer output = writer;
+        Thread thread = new Thread(() -> drain(output), "MapStruct-Request-Recorder");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            thread.interrupt();
+            try {
+                thread.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "MapStruct-Request-Recorder-Shutdown"));
+        log.info("Recording requests to {}", this.file);
+    }
+
+    public boolean enabled() {
+        return queue != null;
+    }
+
+    /**
+     * Queues one request for the trace file.
+     *
+     * @param arrivalNanos {@link System#nanoTime()} when the request arrived
+     * @param response     encoded response to hash, or null if it is not comparable between runs
+     */
+    public void record(long arrivalNanos, long sessionId, String requestLine, byte[] response) {
+        if (queue == null) {
+            return;
+        }
+        String entry = (arrivalNanos - originNanos) / 1000 + "\t" + sessionId + "\t"
+                + (response == null ? NO_HASH : hash(response)) + "\t" + requestLine;
+        if (!queue.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Hash of an encoded response as written to the trace file.
+     */
+    public static String hash(byte[] response) {
+        CRC32C crc = new CRC32C();
+        crc.update(response);
+        return Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * One parsed trace line.
+     */
+    public record Entry(long arrivalMicros, long sessionId, String responseHash, String request) {
+
+        /**
+         * Parses a trace line; returns null for header and blank lines.
+         */
+        public static Entry parse(String line) {
+            if (line.isBlank() || line.startsWith("#")) {
+                return null;
+            }
+            int first = line.indexOf('\t');
+            int second = line.indexOf('\t', first + 1);
+            int third = line.indexOf('\t', second + 1);
+            if (first < 0 || second < 0 || third < 0) {
+                throw new IllegalArgumentException("malformed trace line: " + line);
+            }
+            return new Entry(Long.parseLong(line.substring(0, first)), Long.parseLong(line.substring(first + 1, second)),
+                    line.substring(second + 1, third), line.substring(third + 1));
+        }
+    }
+
+    private static Writer open(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        OutputStream out = Files.newOutputStream(file);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            out = new GZIPOutputStream(out, 64 * 1024, true);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(HEADER_PREFIX + " " + Instant.now() + "\n");
+        return writer;
+    }
+
+    private void drain(Writer writer) {
+        try {
+            try {
+                while (true) {
+                    String entry = queue.poll(1, TimeUnit.SECONDS);
+                    if (entry == null) {
+                        writer.flush();
+                        continue;
+                    }
+                    writer.write(entry);
+                    writer.write('\n');
+                    if (queue.isEmpty()) {
+                        writer.flush();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // shutdown: write what is still queued
+                String entry;
+                while ((entry = queue.poll()) != null) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            log.error("Request trace {} failed, recording stopped", file, e);
+        }
+        if (dropped.get() > 0) {
+            log.warn("Request trace {} dropped {} requests", file, dropped.get());
+        }
+    }
+}
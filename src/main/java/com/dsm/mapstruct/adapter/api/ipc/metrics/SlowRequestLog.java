@@ -0,0 +1,87 @@
+package com.dsm.mapstruct.adapter.api.ipc.metrics;
+
+import com.dsm.mapstruct.core.trace.RequestTrace;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Structured log of requests slower than {@code mapstruct.slowlog.thresholdMs} (default 500, 0 or less disables it).
+ *
+ * Each slow request becomes one JSON line on the dedicated {@code com.dsm.mapstruct.slowlog} logger, which
+ * logback routes to its own rolling file. The record keeps the original request, so it can be replayed
+ * as-is against a local server. Per-span timings are only captured with {@code mapstruct.slowlog.spans=true}
+ * (or for requests that ask for {@code trace}), so the log costs nothing on fast requests by default.
+ */
+@Slf4j(topic = "com.dsm.mapstruct.slowlog")
+public class SlowRequestLog {
+
+    private static final Gson gson = new Gson();
+
+    private final long thresholdNanos;
+    private final boolean captureSpans;
+
+    /**
+     * Diagnostics of one handled request.
+     */
+    public record SlowRequest(JsonObject request, String method, long sessionId, long elapsedNanos,
+                              String cacheOutcome, int memberCount, boolean error, List<RequestTrace.Span> spans) {
+    }
+
+    public SlowRequestLog() {
+        this(TimeUnit.MILLISECONDS.toNanos(Long.getLong("mapstruct.slowlog.thresholdMs", 500)),
+                Boolean.getBoolean("mapstruct.slowlog.spans"));
+    }
+
+    public SlowRequestLog(long thresholdNanos) {
+        this(thresholdNanos, false);
+    }
+
+    public SlowRequestLog(long thresholdNanos, boolean captureSpans) {
+        this.thresholdNanos = thresholdNanos;
+        this.captureSpans = captureSpans;
+    }
+
+    /**
+     * True if every explore_path request has to collect its spans in case it turns out to be slow.
+     */
+    public boolean capturesSpans() {
+        return captureSpans && thresholdNanos > 0 && log.isInfoEnabled();
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return thresholdNanos > 0 && elapsedNanos >= thresholdNanos;
+    }
+
+    public void record(SlowRequest slowRequest) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        log.info(gson.toJson(toJson(slowRequest)));
+    }
+
+    /**
+     * The record written for a slow request.
+     */
+    public JsonObject toJson(SlowRequest slowRequest) {
+        JsonObject record = new JsonObject();
+        record.addProperty("timestamp", Instant.now().toString());
+        record.addProperty("method", slowRequest.method());
+        record.addProperty("session", slowRequest.sessionId());
+        record.addProperty("elapsedNanos", slowRequest.elapsedNanos());
+        record.addProperty("thresholdNanos", thresholdNanos);
+        record.addProperty("error", slowRequest.error());
+        record.addProperty("cacheOutcome", slowRequest.cacheOutcome());
+        record.addProperty("memberCount", slowRequest.memberCount());
+        if (!slowRequest.spans().isEmpty()) {
+            record.addProperty("membersTouched", TraceJson.membersTouched(slowRequest.spans()));
+            record.add("spans", TraceJson.spans(slowRequest.spans()));
+        }
+        record.add("request", slowRequest.request());
+        return record;
+    }
+}
@@ -0,0 +1,67 @@
+package com.dsm.mapstruct.adapter.api.ipc.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Periodically replaces a local file with the current stats snapshot (the same JSON the {@code stats} method returns).
+ * The file is written to a sibling temp file first and moved into place, so readers never see a partial snapshot.
+ */
+@Slf4j
+public class StatsFileWriter {
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private final Path file;
+    private final Supplier<JsonObject> snapshot;
+
+    private StatsFileWriter(Path file, Supplier<JsonObject> snapshot) {
+        this.file = file;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Starts dumping if {@code mapstruct.stats.file} is set; the interval comes from
+     * {@code mapstruct.stats.intervalMs} (default 60 seconds). A final snapshot is written on JVM exit.
+     */
+    public static void startIfConfigured(Supplier<JsonObject> snapshot) {
+        String fileName = System.getProperty("mapstruct.stats.file");
+        if (fileName == null || fileName.isBlank()) {
+            return;
+        }
+        long intervalMs = Long.getLong("mapstruct.stats.intervalMs", 60000);
+        StatsFileWriter writer = new StatsFileWriter(Path.of(fileName), snapshot);
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "MapStruct-Stats-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(writer::write, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(writer::write, "MapStruct-Stats-Final-Dump"));
+        log.info("Dumping stats to {} every {} ms", fileName, intervalMs);
+    }
+
+    private void write() {
+        try {
+            Path absolute = file.toAbsolutePath();
+            Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+            Files.writeString(temp, gson.toJson(snapshot.get()), StandardCharsets.UTF_8);
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write stats file {}: {}", file, e.getMessage());
+        }
+    }
+}
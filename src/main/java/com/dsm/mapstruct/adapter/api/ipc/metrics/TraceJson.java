@@ -0,0 +1,45 @@
+package com.dsm.mapstruct.adapter.api.ipc.metrics;
+
+import com.dsm.mapstruct.core.trace.RequestTrace;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import lombok.experimental.UtilityClass;
+
+import java.util.List;
+
+/**
+ * JSON form of recorded request spans, shared by traced responses and the slow-request log.
+ */
+@UtilityClass
+public class TraceJson {
+
+    public static JsonArray spans(List<RequestTrace.Span> spans) {
+        JsonArray array = new JsonArray();
+        for (RequestTrace.Span span : spans) {
+            JsonObject json = new JsonObject();
+            json.addProperty("name", span.name());
+            if (span.detail() != null) {
+                json.addProperty("detail", span.detail());
+            }
+            if (span.count() >= 0) {
+                json.addProperty("count", span.count());
+            }
+            json.addProperty("nanos", span.nanos());
+            array.add(json);
+        }
+        return array;
+    }
+
+    /**
+     * Sum of the member table sizes fetched while handling the request.
+     */
+    public static long membersTouched(List<RequestTrace.Span> spans) {
+        long members = 0;
+        for (RequestTrace.Span span : spans) {
+            if (span.name().startsWith("memberTable.") && span.count() > 0) {
+                members += span.count();
+            }
+        }
+        return members;
+    }
+}
@@ -0,0 +1,150 @@
+package com.dsm.mapstruct.adapter.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.filter.ThresholdFilter;
+import ch.qos.logback.classic.spi.Configurator;
+import ch.qos.logback.classic.spi.ConfiguratorRank;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.ConsoleAppender;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.hook.DefaultShutdownHook;
+import ch.qos.logback.core.rolling.FixedWindowRollingPolicy;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import ch.qos.logback.core.rolling.SizeBasedTriggeringPolicy;
+import ch.qos.logback.core.spi.ContextAwareBase;
+import ch.qos.logback.core.util.FileSize;
+
+/**
+ * Logging setup of the tool, built in code instead of a logback.xml.
+ *
+ * Parsing an XML configuration loads the JDK's SAX parser and logback's Joran model (several hundred classes)
+ * before the server can bind its socket; building the same appenders directly avoids all of it.
+ * An explicit {@code -Dlogback.configurationFile} still wins: this configurator then steps aside.
+ *
+ * - Log file: {@code mapstruct.log.file} (default {@code ~/.local/state/nvim/mapstruct-source-server.log}),
+ *   level {@code mapstruct.log.level} (default INFO), written by an async appender that drops events below
+ *   WARN instead of blocking request threads when its queue is full.
+ * - Console: off unless {@code mapstruct.console.level} is set (the IPC server's {@code --verbose}).
+ * - Slow-request log: logger {@code com.dsm.mapstruct.slowlog}, a rolling file at {@code mapstruct.slowlog.file}
+ *   (3 x 10 MB), see {@code SlowRequestLog}.
+ */
+@ConfiguratorRank(ConfiguratorRank.CUSTOM_NORMAL_PRIORITY)
+public class LogbackConfigurator extends ContextAwareBase implements Configurator {
+
+    private static final String STATE_DIR = System.getProperty("user.home") + "/.local/state/nvim/";
+    private static final String FILE_PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n";
+    private static final String CONSOLE_PATTERN = "%d{HH:mm:ss.SSS} [%thread] %-5level %logger - %msg %mdc%n";
+
+    @Override
+    public ExecutionStatus configure(LoggerContext context) {
+        if (System.getProperty("logback.configurationFile") != null) {
+            return ExecutionStatus.INVOKE_NEXT_IF_ANY;
+        }
+        registerShutdownHook(context);
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName("FILE");
+        file.setFile(System.getProperty("mapstruct.log.file", STATE_DIR + "mapstruct-source-server.log"));
+        file.setAppend(true);
+        file.setEncoder(encoder(context, FILE_PATTERN));
+        file.start();
+
+        AsyncAppender asyncFile = async(context, "ASYNC_FILE", file, 1024);
+        asyncFile.start();
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.WARN);
+        root.addAppender(asyncFile);
+
+        Level consoleLevel = Level.toLevel(System.getProperty("mapstruct.console.level"), Level.OFF);
+        if (consoleLevel != Level.OFF) {
+            ThresholdFilter threshold = new ThresholdFilter();
+            threshold.setLevel(consoleLevel.levelStr);
+            threshold.start();
+            ConsoleAppender<ILoggingEvent> console = new ConsoleAppender<>();
+            console.setContext(context);
+            console.setName("STDOUT");
+            console.addFilter(threshold);
+            console.setEncoder(encoder(context, CONSOLE_PATTERN));
+            console.start();
+            root.addAppender(console);
+        }
+
+        context.getLogger("com.dsm.mapstruct").setLevel(Level.toLevel(System.getProperty("mapstruct.log.level"), Level.INFO));
+
+        Logger slowlog = context.getLogger("com.dsm.mapstruct.slowlog");
+        slowlog.setLevel(Level.INFO);
+        slowlog.setAdditive(false);
+        slowlog.addAppender(slowRequestAppender(context));
+        return ExecutionStatus.DO_NOT_INVOKE_NEXT_IF_ANY;
+    }
+
+    private Appender<ILoggingEvent> slowRequestAppender(LoggerContext context) {
+        String slowlogFile = System.getProperty("mapstruct.slowlog.file", STATE_DIR + "mapstruct-slow-requests.jsonl");
+        RollingFileAppender<ILoggingEvent> rolling = new RollingFileAppender<>();
+        rolling.setContext(context);
+        rolling.setName("SLOWLOG");
+        rolling.setFile(slowlogFile);
+        rolling.setAppend(true);
+        rolling.setEncoder(encoder(context, "%msg%n"));
+
+        FixedWindowRollingPolicy rollingPolicy = new FixedWindowRollingPolicy();
+        rollingPolicy.setContext(context);
+        rollingPolicy.setParent(rolling);
+        rollingPolicy.setFileNamePattern(slowlogFile + ".%i");
+        rollingPolicy.setMinIndex(1);
+        rollingPolicy.setMaxIndex(3);
+        rollingPolicy.start();
+
+        SizeBasedTriggeringPolicy<ILoggingEvent> triggeringPolicy = new SizeBasedTriggeringPolicy<>();
+        triggeringPolicy.setContext(context);
+        triggeringPolicy.setMaxFileSize(FileSize.valueOf("10MB"));
+        triggeringPolicy.start();
+
+        rolling.setRollingPolicy(rollingPolicy);
+        rolling.setTriggeringPolicy(triggeringPolicy);
+        rolling.start();
+
+        AsyncAppender asyncSlowlog = async(context, "ASYNC_SLOWLOG", rolling, 256);
+        // slow-request records are INFO, keep them until the queue is really full
+        asyncSlowlog.setDiscardingThreshold(0);
+        asyncSlowlog.start();
+        return asyncSlowlog;
+    }
+
+    private static AsyncAppender async(LoggerContext context, String name, Appender<ILoggingEvent> target, int queueSize) {
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName(name);
+        async.setQueueSize(queueSize);
+        async.setNeverBlock(true);
+        async.addAppender(target);
+        return async;
+    }
+
+    private static PatternLayoutEncoder encoder(LoggerContext context, String pattern) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(pattern);
+        encoder.start();
+        return encoder;
+    }
+
+    /**
+     * Stops the async appenders on JVM exit (including System.exit), flushing queued events.
+     */
+    private static void registerShutdownHook(LoggerContext context) {
+        DefaultShutdownHook hook = new DefaultShutdownHook();
+        hook.setContext(context);
+        Thread thread = new Thread(hook, "Logback shutdown hook [" + context.getName() + "]");
+        context.putObject(CoreConstants.SHUTDOWN_HOOK_THREAD, thread);
+        Runtime.getRuntime().addShutdownHook(thread);
+    }
+}
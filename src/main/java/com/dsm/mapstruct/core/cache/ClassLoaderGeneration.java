@@ -0,0 +1,32 @@
+package com.dsm.mapstruct.core.cache;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generation counter of the classes the server resolves.
+ *
+ * Everything derived from introspected classes (member tables, encoded responses) is only valid for the
+ * generation it was computed in. Advancing the generation invalidates all of it; caches key their entries
+ * by generation so results computed concurrently with an invalidation are never served afterwards.
+ *
+ * Classes are currently resolved from the fixed application class loader, so the generation only advances
+ * when a client asks for it explicitly (e.g. after recompiling mappers).
+ */
+@UtilityClass
+public class ClassLoaderGeneration {
+
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    public static long current() {
+        return GENERATION.get();
+    }
+
+    /**
+     * Starts a new generation and returns its number.
+     */
+    public static long advance() {
+        return GENERATION.incrementAndGet();
+    }
+}
@@ -0,0 +1,155 @@
+package com.dsm.mapstruct.core.cache;
+
+import com.dsm.mapstruct.core.jfr.CacheEvictionEvent;
+import com.dsm.mapstruct.core.jfr.MemberTableBuildEvent;
+import com.dsm.mapstruct.core.model.FieldInfo;
+import com.dsm.mapstruct.core.trace.RequestTrace;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of per-class member tables (fields, getters and setters) with single-flight loading.
+ *
+ * When several threads ask for the same uncached class, the first one introspects it and the others wait
+ * on its future instead of repeating the reflection work. In-flight loads are tracked per class, so a slow
+ * class never blocks lookups of unrelated types. Entries are keyed by {@link ClassLoaderGeneration}.
+ */
+@Slf4j
+public class MemberTableCache {
+
+    private static final long DEFAULT_MAX_SIZE = 4096;
+
+    private final Function<Class<?>, List<FieldInfo>> loader;
+    private final Cache<Key, List<FieldInfo>> tables;
+    private final ConcurrentMap<Key, CompletableFuture<List<FieldInfo>>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder contendedWaits = new LongAdder();
+
+    private record Key(long generation, Class<?> type) {
+    }
+
+    /**
+     * Snapshot of cache effectiveness.
+     *
+     * @param contendedWaits lookups that found the class already being introspected by another thread and waited for it
+     */
+    public record Stats(long hits, long loads, long contendedWaits, long entries) {
+    }
+
+    public MemberTableCache(Function<Class<?>, List<FieldInfo>> loader) {
+        this(loader, Long.getLong("mapstruct.cache.memberTables.maxSize", DEFAULT_MAX_SIZE));
+    }
+
+    public MemberTableCache(Function<Class<?>, List<FieldInfo>> loader, long maxSize) {
+        this.loader = loader;
+        this.tables = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .removalListener(MemberTableCache::onRemoval)
+                .build();
+    }
+
+    /**
+     * Returns the member table of the class, introspecting it at most once per generation
+     * no matter how many threads ask concurrently.
+     */
+    public List<FieldInfo> get(Class<?> type) {
+        RequestTrace trace = RequestTrace.current();
+        long start = trace.mark();
+        Key key = new Key(ClassLoaderGeneration.current(), type);
+        List<FieldInfo> table = tables.getIfPresent(key);
+        if (table != null) {
+            hits.increment();
+            trace.span("memberTable.hit", type.getName(), table.size(), start);
+            return table;
+        }
+
+        CompletableFuture<List<FieldInfo>> load = new CompletableFuture<>();
+        CompletableFuture<List<FieldInfo>> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            contendedWaits.increment();
+            log.debug("Waiting for in-flight introspection of {}", type.getName());
+            table = await(existing);
+            trace.span("memberTable.wait", type.getName(), table.size(), start);
+            return table;
+        }
+
+        try {
+            // another thread may have finished loading between the lookup and claiming the key
+            table = tables.getIfPresent(key);
+            if (table != null) {
+                hits.increment();
+                trace.span("memberTable.hit", type.getName(), table.size(), start);
+            } else {
+                table = build(key);
+                loads.increment();
+                tables.put(key, table);
+                trace.span("memberTable.miss", type.getName(), table.size(), start);
+            }
+            load.complete(table);
+            return table;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * Drops every cached table (in-flight loads complete normally for their waiters).
+     */
+    public void invalidateAll() {
+        tables.invalidateAll();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), loads.sum(), contendedWaits.sum(), tables.size());
+    }
+
+    private List<FieldInfo> build(Key key) {
+        MemberTableBuildEvent event = new MemberTableBuildEvent();
+        event.begin();
+        List<FieldInfo> table = loader.apply(key.type());
+        if (event.shouldCommit()) {
+            event.className = key.type().getName();
+            event.memberCount = table.size();
+            event.generation = key.generation();
+            event.commit();
+        }
+        return table;
+    }
+
+    private static void onRemoval(RemovalNotification<Key, List<FieldInfo>> notification) {
+        if (notification.wasEvicted() && notification.getKey() != null && notification.getValue() != null) {
+            Key key = notification.getKey();
+            CacheEvictionEvent.emit("memberTables", key.type().getName(), null,
+                    notification.getValue().size(), key.generation());
+        }
+    }
+
+    private static List<FieldInfo> await(CompletableFuture<List<FieldInfo>> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            // rethrow the loader's own failure, as the loading thread saw it
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
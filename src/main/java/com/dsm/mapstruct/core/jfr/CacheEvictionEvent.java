@@ -0,0 +1,50 @@
+package com.dsm.mapstruct.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An entry dropped by a bounded cache because of its size limit.
+ */
+@Name("com.dsm.mapstruct.CacheEviction")
+@Label("Cache Eviction")
+@Category({"MapStruct Path Explorer", "Cache"})
+@Description("An entry dropped by a bounded cache because of its size limit")
+@StackTrace(false)
+public class CacheEvictionEvent extends Event {
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Class Name")
+    public String className;
+
+    @Label("Path Expression")
+    public String pathExpression;
+
+    @Label("Weight")
+    @Description("Entry size: bytes for encoded responses, members for member tables")
+    public long weight;
+
+    @Label("Class Generation")
+    public long generation;
+
+    /**
+     * Commits an eviction right away (evictions are instantaneous, the event has no duration).
+     */
+    public static void emit(String cache, String className, String pathExpression, long weight, long generation) {
+        CacheEvictionEvent event = new CacheEvictionEvent();
+        if (event.shouldCommit()) {
+            event.cache = cache;
+            event.className = className;
+            event.pathExpression = pathExpression;
+            event.weight = weight;
+            event.generation = generation;
+            event.commit();
+        }
+    }
+}
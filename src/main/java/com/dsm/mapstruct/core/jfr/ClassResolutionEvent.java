@@ -0,0 +1,25 @@
+package com.dsm.mapstruct.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Loading a type named by a request (source parameter or explored type) through {@code Class.forName}.
+ */
+@Name("com.dsm.mapstruct.ClassResolution")
+@Label("Class Resolution")
+@Category({"MapStruct Path Explorer", "Completion"})
+@Description("Loading a type named by a request")
+@StackTrace(false)
+public class ClassResolutionEvent extends Event {
+
+    @Label("Class Name")
+    public String className;
+
+    @Label("Found")
+    public boolean found;
+}
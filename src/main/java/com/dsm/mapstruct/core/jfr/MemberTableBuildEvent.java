@@ -0,0 +1,28 @@
+package com.dsm.mapstruct.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Reflective introspection of one class into its member table (a member table cache miss).
+ */
+@Name("com.dsm.mapstruct.MemberTableBuild")
+@Label("Member Table Build")
+@Category({"MapStruct Path Explorer", "Completion"})
+@Description("Reflective introspection of a class on a member table cache miss")
+@StackTrace(false)
+public class MemberTableBuildEvent extends Event {
+
+    @Label("Class Name")
+    public String className;
+
+    @Label("Member Count")
+    public int memberCount;
+
+    @Label("Class Generation")
+    public long generation;
+}
@@ -4,14 +4,27 @@ import java.util.List;
 
 /**
  * Result of path completion containing available fields and getters.
+ *
+ * @param isIncomplete       true if the server narrowed the list by the partial segment, so the client
+ *                           must ask again when the segment changes; false if the list holds every member
+ *                           of the resolved type and the client may filter further keystrokes locally
+ * @param resolvedPrefixPath the part of the path the completions were resolved for (up to and including
+ *                           the last '.'); the list stays valid while the typed path extends this prefix
+ *                           with a plain identifier fragment
  */
 public record CompletionResult(String className,
                                String simpleName,
                                String packageName,
                                String path,
-                               List<FieldInfo> completions
+                               List<FieldInfo> completions,
+                               boolean isIncomplete,
+                               String resolvedPrefixPath
 ) {
 
+    public CompletionResult(String className, String simpleName, String packageName, String path, List<FieldInfo> completions) {
+        this(className, simpleName, packageName, path, completions, false, path);
+    }
+
     /**
      * Creates an empty completion result for error cases.
      */
@@ -28,4 +41,18 @@ public record CompletionResult(String className,
                 .toList();
         return new CompletionResult(className, simpleName, packageName, path, sortedCompletions);
     }
+
+    /**
+     * Returns a copy carrying the client-side filtering contract.
+     */
+    public CompletionResult withFiltering(boolean isIncomplete, String resolvedPrefixPath) {
+        return new CompletionResult(className, simpleName, packageName, path, completions, isIncomplete, resolvedPrefixPath);
+    }
+
+    /**
+     * Returns a copy with different completions, keeping all other attributes.
+     */
+    public CompletionResult withCompletions(List<FieldInfo> completions) {
+        return new CompletionResult(className, simpleName, packageName, path, completions, isIncomplete, resolvedPrefixPath);
+    }
 }
@@ -0,0 +1,182 @@
+package com.dsm.mapstruct.core.schedule;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Keeps work of different urgency from competing for the CPU with keystroke completions.
+ *
+ * - {@link Priority#INTERACTIVE}: {@code explore_path} and {@code explore_type_source} requests. They run on the
+ *   transport's request threads and only announce themselves ({@link #interactiveStarted()} / {@link #interactiveFinished()}).
+ * - {@link Priority#BATCH}: work a client asked for and will use soon, such as warm-up.
+ * - {@link Priority#BACKGROUND}: work nobody waits for, such as speculative lookahead.
+ *
+ * Batch and background work run on their own small pools of daemon threads (lower thread priorities as a hint,
+ * which Linux only honours with {@code -XX:ThreadPriorityPolicy=1}). Preemption is cooperative: tasks call
+ * {@link #awaitTurn} between units of work (one class each), which waits while more urgent work runs. Batch work
+ * gives way to interactive requests; background work gives way to both. Waiting tasks are woken when the last
+ * more urgent task finishes, not by polling. A batch task waits at most {@code mapstruct.scheduler.batchMaxWaitMs}
+ * and then takes its turn anyway, so a steady stream of keystrokes slows a warm-up down but cannot stall it.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PriorityScheduler {
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+    private static final long BATCH_MAX_WAIT_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("mapstruct.scheduler.batchMaxWaitMs", 250));
+
+    public enum Priority {
+        INTERACTIVE,
+        BATCH,
+        BACKGROUND
+    }
+
+    /**
+     * Snapshot of the scheduler.
+     *
+     * @param batchYields      times a batch task paused for interactive requests
+     * @param batchOverdue     times a batch task stopped waiting after {@code mapstruct.scheduler.batchMaxWaitMs}
+     * @param backgroundYields times a background task paused for interactive requests or batch work
+     */
+    public record Stats(int interactiveInFlight, int batchRunning, long batchYields, long batchOverdue,
+                        long backgroundYields) {
+    }
+
+    AtomicInteger interactiveInFlight = new AtomicInteger();
+    AtomicInteger batchRunning = new AtomicInteger();
+    LongAdder batchYields = new LongAdder();
+    LongAdder batchOverdue = new LongAdder();
+    LongAdder backgroundYields = new LongAdder();
+    // waiting tasks sleep on turnChanged; finishing work only takes the lock while someone waits
+    ReentrantLock lock = new ReentrantLock();
+    Condition turnChanged = lock.newCondition();
+    AtomicInteger waiting = new AtomicInteger();
+    // created on first use, most sessions never schedule anything
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    ExecutorService batchExecutor = pool("MapStruct-Batch-",
+            Integer.getInteger("mapstruct.scheduler.batchThreads", Math.max(1, CORES / 2)), Thread.NORM_PRIORITY - 1);
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    ExecutorService backgroundExecutor = pool("MapStruct-Background-",
+            Integer.getInteger("mapstruct.scheduler.backgroundThreads", Math.max(1, CORES / 4)), Thread.MIN_PRIORITY);
+
+    public void interactiveStarted() {
+        interactiveInFlight.incrementAndGet();
+    }
+
+    public void interactiveFinished() {
+        if (interactiveInFlight.decrementAndGet() == 0) {
+            signalWaiting();
+        }
+    }
+
+    /**
+     * Wakes waiting tasks so they re-check their turn and cancellation; call it after cancelling a task.
+     */
+    public void signalWaiting() {
+        if (waiting.get() > 0) {
+            lock.lock();
+            try {
+                turnChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Runs a batch or background task on the pool of its tier.
+     */
+    public CompletableFuture<Void> submit(Priority priority, Runnable task) {
+        return switch (priority) {
+            case INTERACTIVE -> throw new IllegalArgumentException("interactive work runs on the request thread");
+            case BATCH -> CompletableFuture.runAsync(() -> {
+                batchRunning.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    if (batchRunning.decrementAndGet() == 0) {
+                        signalWaiting();
+                    }
+                }
+            }, getBatchExecutor());
+            case BACKGROUND -> CompletableFuture.runAsync(task, getBackgroundExecutor());
+        };
+    }
+
+    /**
+     * Preemption point of a batch task: waits until no interactive request runs, at most
+     * {@code mapstruct.scheduler.batchMaxWaitMs}; the task continues either way.
+     */
+    public void awaitBatchTurn() {
+        if (!awaitTurn(Priority.BATCH, BATCH_MAX_WAIT_NANOS, () -> false)) {
+            batchOverdue.increment();
+        }
+    }
+
+    /**
+     * Preemption point of a batch or background task: waits until no more urgent work runs, the task is
+     * cancelled or {@code maxWaitNanos} have passed.
+     *
+     * @return true if the task may continue, false if it was cancelled or waited too long
+     */
+    public boolean awaitTurn(Priority priority, long maxWaitNanos, BooleanSupplier cancelled) {
+        if (!moreUrgentRunning(priority)) {
+            return !cancelled.getAsBoolean();
+        }
+        (priority == Priority.BATCH ? batchYields : backgroundYields).increment();
+        long remainingNanos = maxWaitNanos;
+        lock.lock();
+        // registered before the check below, so a finishing task that sees no waiter cannot be missed
+        waiting.incrementAndGet();
+        try {
+            while (moreUrgentRunning(priority) && !cancelled.getAsBoolean()) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = turnChanged.awaitNanos(remainingNanos);
+            }
+            return !cancelled.getAsBoolean();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(interactiveInFlight.get(), batchRunning.get(), batchYields.sum(), batchOverdue.sum(),
+                backgroundYields.sum());
+    }
+
+    private boolean moreUrgentRunning(Priority priority) {
+        return switch (priority) {
+            case INTERACTIVE -> false;
+            case BATCH -> interactiveInFlight.get() > 0;
+            // a batch task yielding to an interactive request still counts: it resumes before background work
+            case BACKGROUND -> interactiveInFlight.get() > 0 || batchRunning.get() > 0;
+        };
+    }
+
+    private static ExecutorService pool(String namePrefix, int threads, int threadPriority) {
+        AtomicInteger index = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + index.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(threadPriority);
+            return thread;
+        });
+    }
+}
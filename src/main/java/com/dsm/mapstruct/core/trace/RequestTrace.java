@@ -0,0 +1,115 @@
+package com.dsm.mapstruct.core.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in per-request timing breakdown, bound to the thread handling the request.
+ *
+ * Instrumented code asks for {@link #current()} and brackets work with {@link #mark()} / {@link #span}.
+ * While no request on any thread is traced, {@link #current()} returns {@link #NOOP} after a single volatile
+ * read, {@link #mark()} does not read the clock and {@link #span} returns immediately.
+ */
+public final class RequestTrace implements AutoCloseable {
+
+    /**
+     * Disabled trace: records nothing.
+     */
+    public static final RequestTrace NOOP = new RequestTrace(false);
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final AtomicInteger ACTIVE = new AtomicInteger();
+
+    private final boolean enabled;
+    private final List<Span> spans;
+
+    /**
+     * One timed step.
+     *
+     * @param name   step name (e.g. "resolveClass", "segment", "memberTable.miss")
+     * @param detail what the step worked on (class name, segment name), may be null
+     * @param count  number of members the step produced or touched, -1 if not applicable
+     * @param nanos  elapsed time in nanoseconds
+     */
+    public record Span(String name, String detail, int count, long nanos) {
+    }
+
+    private RequestTrace(boolean enabled) {
+        this.enabled = enabled;
+        this.spans = enabled ? new ArrayList<>() : Collections.emptyList();
+    }
+
+    /**
+     * Starts tracing the current thread's request; close the returned trace when the request is done.
+     */
+    public static RequestTrace start() {
+        RequestTrace trace = new RequestTrace(true);
+        CURRENT.set(trace);
+        ACTIVE.incrementAndGet();
+        return trace;
+    }
+
+    /**
+     * Trace of the current thread's request, or {@link #NOOP} if it is not traced.
+     */
+    public static RequestTrace current() {
+        if (ACTIVE.get() == 0) {
+            return NOOP;
+        }
+        RequestTrace trace = CURRENT.get();
+        return trace == null ? NOOP : trace;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Start timestamp for a span (0 when disabled).
+     */
+    public long mark() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records a span that started at {@code startNanos} (from {@link #mark()}) and ends now.
+     */
+    public void span(String name, String detail, long startNanos) {
+        span(name, detail, -1, startNanos);
+    }
+
+    /**
+     * Records a span that produced or touched {@code count} members.
+     */
+    public void span(String name, String detail, int count, long startNanos) {
+        if (enabled) {
+            spans.add(new Span(name, detail, count, System.nanoTime() - startNanos));
+        }
+    }
+
+    /**
+     * Records a span measured by the caller.
+     */
+    public void span(String name, String detail, long startNanos, long endNanos) {
+        if (enabled) {
+            spans.add(new Span(name, detail, -1, endNanos - startNanos));
+        }
+    }
+
+    /**
+     * Recorded spans in completion order.
+     */
+    public List<Span> spans() {
+        return Collections.unmodifiableList(spans);
+    }
+
+    @Override
+    public void close() {
+        if (enabled && CURRENT.get() == this) {
+            CURRENT.remove();
+            ACTIVE.decrementAndGet();
+        }
+    }
+}
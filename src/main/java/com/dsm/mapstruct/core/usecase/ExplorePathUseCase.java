@@ -1,7 +1,9 @@
 package com.dsm.mapstruct.core.usecase;
 
+import com.dsm.mapstruct.core.cache.MemberTableCache;
 import com.dsm.mapstruct.core.model.CompletionResult;
 import com.dsm.mapstruct.core.model.SourceParameter;
+import com.dsm.mapstruct.core.trace.RequestTrace;
 import com.dsm.mapstruct.core.usecase.ExplorePathUseCase.ExplorePathParams;
 import com.dsm.mapstruct.core.usecase.helper.PathNavigator;
 import com.google.gson.Gson;
@@ -23,21 +25,46 @@ public class ExplorePathUseCase implements UseCase<ExplorePathParams, String> {
 
     PathNavigator navigator = new PathNavigator();
 
+    /**
+     * Navigator behind this use case, shared with work that should warm the same caches.
+     */
+    public PathNavigator navigator() {
+        return navigator;
+    }
+
+    /**
+     * Member table cache behind this use case, for statistics and invalidation.
+     */
+    public MemberTableCache memberTables() {
+        return navigator.memberTables();
+    }
+
     @Override
     @SneakyThrows
     public String execute(ExplorePathParams input) {
+        // Output as JSON
+        return GSON.toJson(explore(input));
+    }
+
+    /**
+     * Navigates the path and returns the deduplicated completion result without serializing it,
+     * so IPC adapters can pick their own wire encoding.
+     */
+    public CompletionResult explore(ExplorePathParams input) {
         // Navigate and get completions using multi-parameter support
         CompletionResult result = navigator.navigateFromSources(
                 input.sources,
                 input.pathExpression,
-                input.isEnum
+                input.isEnum,
+                input.clientFiltering
         );
 
         // Deduplicate completions by name (keep first occurrence)
-        CompletionResult deduplicated = deduplicateCompletions(result);
-
-        // Output as JSON
-        return GSON.toJson(deduplicated);
+        RequestTrace trace = RequestTrace.current();
+        long dedupeStart = trace.mark();
+        CompletionResult unique = deduplicateCompletions(result);
+        trace.span("dedupe", null, unique.completions().size(), dedupeStart);
+        return unique;
     }
 
     /**
@@ -56,24 +83,23 @@ public class ExplorePathUseCase implements UseCase<ExplorePathParams, String> {
                 .stream()
                 .toList();
 
-        return new CompletionResult(
-                result.className(),
-                result.simpleName(),
-                result.packageName(),
-                result.path(),
-                uniqueCompletions
-        );
+        return result.withCompletions(uniqueCompletions);
     }
 
     public record ExplorePathParams(
                                     List<SourceParameter> sources,
                                     String pathExpression,
-                                    boolean isEnum
+                                    boolean isEnum,
+                                    boolean clientFiltering
     ) {
         public ExplorePathParams {
             if (sources == null || sources.isEmpty()) {
                 throw new IllegalArgumentException("sources list cannot be null or empty");
             }
         }
+
+        public ExplorePathParams(List<SourceParameter> sources, String pathExpression, boolean isEnum) {
+            this(sources, pathExpression, isEnum, false);
+        }
     }
 }
@@ -0,0 +1,140 @@
+package com.dsm.mapstruct.core.usecase;
+
+import com.dsm.mapstruct.core.schedule.PriorityScheduler;
+import com.dsm.mapstruct.core.schedule.PriorityScheduler.Priority;
+import com.dsm.mapstruct.core.usecase.WarmupUseCase.WarmupParams;
+import com.dsm.mapstruct.core.usecase.WarmupUseCase.WarmupResult;
+import com.dsm.mapstruct.core.usecase.helper.PathNavigator;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads and introspects the types a client is about to complete on, so the first keystroke hits warm caches.
+ *
+ * Starting from the given types (or the parameter and return types of a mapper's abstract methods), every type
+ * within {@code depth} navigation steps is introspected through the shared {@link PathNavigator}, one hop at a time,
+ * in parallel as {@link Priority#BATCH} work of the {@link PriorityScheduler}: it pauses before every class while
+ * interactive requests run. The work is bounded by {@code mapstruct.warmup.maxTypes} per call, so a mapper over a
+ * huge type graph cannot keep the pool busy indefinitely.
+ */
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class WarmupUseCase implements UseCase<WarmupParams, CompletableFuture<WarmupResult>> {
+
+    private static final int MAX_TYPES = Integer.getInteger("mapstruct.warmup.maxTypes", 2000);
+
+    PathNavigator navigator;
+    PriorityScheduler scheduler;
+
+    public WarmupUseCase(PathNavigator navigator, PriorityScheduler scheduler) {
+        this.navigator = navigator;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Starts warming up and returns immediately; the future completes when every reachable type is introspected.
+     */
+    @Override
+    public CompletableFuture<WarmupResult> execute(WarmupParams params) {
+        long start = System.nanoTime();
+        Set<Class<?>> visited = ConcurrentHashMap.newKeySet();
+        AtomicInteger failed = new AtomicInteger();
+        Set<Class<?>> roots = new LinkedHashSet<>(params.roots());
+        visited.addAll(roots);
+        return hop(roots, params.depth(), visited, failed).thenApply(ignored -> {
+            WarmupResult result = new WarmupResult(roots.size(), visited.size(), failed.get(),
+                    (System.nanoTime() - start) / 1_000_000);
+            log.info("Warm-up finished: {} types from {} roots in {} ms ({} failed)",
+                    result.types(), result.roots(), result.millis(), result.failed());
+            return result;
+        });
+    }
+
+    /**
+     * Introspects one level of types in parallel, then continues with the types they reach.
+     */
+    private CompletableFuture<Void> hop(Set<Class<?>> level, int remaining, Set<Class<?>> visited, AtomicInteger failed) {
+        Set<Class<?>> next = ConcurrentHashMap.newKeySet();
+        CompletableFuture<?>[] introspections = level.stream()
+                .map(type -> scheduler.submit(Priority.BATCH, () -> {
+                    scheduler.awaitBatchTurn();
+                    try {
+                        Set<Class<?>> neighbours = navigator.neighbourTypes(type);
+                        if (remaining > 0) {
+                            for (Class<?> neighbour : neighbours) {
+                                if (visited.size() < MAX_TYPES && visited.add(neighbour)) {
+                                    next.add(neighbour);
+                                }
+                            }
+                        }
+                    } catch (RuntimeException | LinkageError e) {
+                        // a type with missing dependencies must not stop the rest of the warm-up
+                        failed.incrementAndGet();
+                        log.debug("Warm-up of {} failed: {}", type.getName(), e.toString());
+                    }
+                }))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(introspections)
+                .thenCompose(ignored -> next.isEmpty()
+                        ? CompletableFuture.completedFuture(null)
+                        : hop(next, remaining - 1, visited, failed));
+    }
+
+    /**
+     * Source and target types of a mapper: parameters and return types of its abstract methods,
+     * including the element types of parameterized ones ({@code List<Person>} contributes {@code Person}).
+     */
+    public static List<Class<?>> mapperTypes(Class<?> mapper) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (Method method : mapper.getMethods()) {
+            if (!Modifier.isAbstract(method.getModifiers())) {
+                continue;
+            }
+            for (Type parameter : method.getGenericParameterTypes()) {
+                addType(types, parameter);
+            }
+            addType(types, method.getGenericReturnType());
+        }
+        return new ArrayList<>(types);
+    }
+
+    private static void addType(Set<Class<?>> types, Type type) {
+        if (type instanceof Class<?> clazz) {
+            if (!clazz.isPrimitive() && !clazz.getName().startsWith("java.")) {
+                types.add(clazz);
+            }
+        } else if (type instanceof ParameterizedType parameterized) {
+            addType(types, parameterized.getRawType());
+            for (Type argument : parameterized.getActualTypeArguments()) {
+                addType(types, argument);
+            }
+        }
+    }
+
+    /**
+     * @param roots types to start from
+     * @param depth navigation steps to follow from the roots (0 introspects only the roots)
+     */
+    public record WarmupParams(List<Class<?>> roots, int depth) {
+    }
+
+    /**
+     * @param types  types introspected, roots included
+     * @param failed types whose introspection failed (e.g. missing dependencies on the classpath)
+     */
+    public record WarmupResult(int roots, int types, int failed, long millis) {
+    }
+}
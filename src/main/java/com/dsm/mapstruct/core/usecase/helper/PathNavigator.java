@@ -1,21 +1,24 @@
 package com.dsm.mapstruct.core.usecase.helper;
 
+import com.dsm.mapstruct.core.cache.MemberTableCache;
 import com.dsm.mapstruct.core.model.CompletionResult;
 import com.dsm.mapstruct.core.model.FieldInfo;
 import com.dsm.mapstruct.core.model.FieldInfo.FieldKind;
 import com.dsm.mapstruct.core.model.PathSegment;
 import com.dsm.mapstruct.core.model.SourceParameter;
+import com.dsm.mapstruct.core.trace.RequestTrace;
+import com.dsm.mapstruct.core.util.ClassResolverUtil;
 import com.dsm.mapstruct.core.util.CollectionTypeResolverUtil;
 import com.dsm.mapstruct.core.util.NameMatcherUtil;
 import lombok.AccessLevel;
 import lombok.SneakyThrows;
 import lombok.experimental.FieldDefaults;
-import one.util.streamex.StreamEx;
 
 import java.lang.reflect.Field;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -36,6 +39,41 @@ public class PathNavigator {
 
     PathParser pathParser = new PathParser();
     ReflectionAnalyzer reflectionAnalyzer = new ReflectionAnalyzer();
+    MemberTableCache memberTables = new MemberTableCache(reflectionAnalyzer::getAllFieldsAndGetters);
+
+    /**
+     * Member tables shared by every request navigated through this instance.
+     */
+    public MemberTableCache memberTables() {
+        return memberTables;
+    }
+
+    /**
+     * Types one navigation step away from a type: the types of its fields and getters, with collections and arrays
+     * resolved to their item types. Terminal types are left out. Introspects the type through the member table
+     * cache, so calling this warms the cache for it.
+     */
+    public Set<Class<?>> neighbourTypes(Class<?> type) {
+        if (type.isPrimitive() || isTerminalType(type)) {
+            return Set.of();
+        }
+        Set<Class<?>> neighbours = new LinkedHashSet<>();
+        for (FieldInfo member : memberTables.get(type)) {
+            if (member.kind() != FieldKind.FIELD && member.kind() != FieldKind.GETTER) {
+                continue;
+            }
+            Class<?> memberType = reflectionAnalyzer.getFieldOrGetterType(type, member.name());
+            if (memberType != null && memberType.isArray()) {
+                memberType = memberType.getComponentType();
+            } else if (memberType != null && CollectionTypeResolverUtil.isCollection(memberType)) {
+                memberType = CollectionTypeResolverUtil.resolveCollectionItemType(type, member.name());
+            }
+            if (memberType != null && memberType != Object.class && !memberType.isPrimitive() && !isTerminalType(memberType)) {
+                neighbours.add(memberType);
+            }
+        }
+        return neighbours;
+    }
 
     /**
      * Checks if a type is a terminal type that shouldn't have completions.
@@ -47,8 +85,12 @@ public class PathNavigator {
             return true;
         }
 
-        return StreamEx.of(TERMNAL_REF_TYPES)
-                .anyMatch(terminalType -> terminalType.isAssignableFrom(clazz));
+        for (Class<?> terminalType : TERMNAL_REF_TYPES) {
+            if (terminalType.isAssignableFrom(clazz)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -60,8 +102,24 @@ public class PathNavigator {
      * @param isEnum         true if this is for @ValueMapping (enum constants)
      * @return completion result with parameter names or field completions
      */
-    @SneakyThrows
     public CompletionResult navigateFromSources(List<SourceParameter> sources, String pathExpression, boolean isEnum) {
+        return navigateFromSources(sources, pathExpression, isEnum, false);
+    }
+
+    /**
+     * Navigates from multiple source parameters (multi-param mapper support).
+     * Handles parameter name completion and navigation from specific parameters.
+     *
+     * @param sources         list of source parameters
+     * @param pathExpression  the MapStruct path expression
+     * @param isEnum          true if this is for @ValueMapping (enum constants)
+     * @param clientFiltering true to skip partial segment filtering and return the full member list
+     *                        of the resolved type (see {@link CompletionResult#isIncomplete()})
+     * @return completion result with parameter names or field completions
+     */
+    @SneakyThrows
+    public CompletionResult navigateFromSources(List<SourceParameter> sources, String pathExpression, boolean isEnum,
+                                                boolean clientFiltering) {
         if (sources == null || sources.isEmpty()) {
             throw new IllegalArgumentException("sources list cannot be null or empty");
         }
@@ -72,17 +130,17 @@ public class PathNavigator {
         // 2. Single-parameter source mappers (backward compatibility)
         if ((pathExpression == null || pathExpression.isBlank()) && sources.size() == 1) {
             SourceParameter singleParam = sources.get(0);
-            Class<?> paramType = Class.forName(singleParam.type());
+            Class<?> paramType = ClassResolverUtil.resolveClass(singleParam.type());
 
             // Detect if this is a target completion (synthetic "$target" parameter name)
             boolean isTargetCompletion = "$target".equals(singleParam.name());
 
-            return navigate(paramType, "", isEnum, isTargetCompletion);
+            return navigate(paramType, "", isEnum, isTargetCompletion, clientFiltering);
         }
 
         // Empty path with multiple parameters -> return parameter names as completions
         if (pathExpression == null || pathExpression.isBlank()) {
-            return buildParameterCompletions(sources, "");
+            return buildParameterCompletions(sources, "").withFiltering(false, "");
         }
 
         // Check if path starts with a parameter name
@@ -94,15 +152,26 @@ public class PathNavigator {
         if (matchedParam != null) {
             // Path starts with parameter name - navigate from that parameter's type
             String remainingPath = removeFirstSegment(pathExpression);
-            Class<?> paramType = Class.forName(matchedParam.type());
-            return navigate(paramType, remainingPath, isEnum);
+            Class<?> paramType = ClassResolverUtil.resolveClass(matchedParam.type());
+            CompletionResult result = navigate(paramType, remainingPath, isEnum, false, clientFiltering);
+            if (pathExpression.indexOf('.') == -1) {
+                // bare parameter name: members of the parameter type, any further keystroke changes the meaning
+                return result.withFiltering(true, pathExpression);
+            }
+            // resolved prefix is relative to the parameter type, report it for the full expression
+            String parameterPrefix = pathExpression.substring(0, pathExpression.indexOf('.') + 1);
+            return result.withFiltering(result.isIncomplete(), parameterPrefix + result.resolvedPrefixPath());
         }
 
         // Check if it's a partial parameter name (prefix matching)
         List<SourceParameter> matchingParams = filterParametersByPrefix(sources, firstSegment);
         if (!matchingParams.isEmpty() && !firstSegment.contains(".")) {
+            if (clientFiltering) {
+                // Client filters parameter names itself - return all of them
+                return buildParameterCompletions(sources, firstSegment).withFiltering(false, "");
+            }
             // Return matching parameter names
-            return buildParameterCompletions(matchingParams, firstSegment);
+            return buildParameterCompletions(matchingParams, firstSegment).withFiltering(true, "");
         }
 
         // BACKWARD COMPATIBILITY: For single-parameter mappers, if path doesn't match
@@ -111,8 +180,8 @@ public class PathNavigator {
         // where user types "address." but we send sources=[{name:"param0", type:"Person"}]
         if (sources.size() == 1) {
             SourceParameter singleParam = sources.get(0);
-            Class<?> paramType = Class.forName(singleParam.type());
-            return navigate(paramType, pathExpression, isEnum);
+            Class<?> paramType = ClassResolverUtil.resolveClass(singleParam.type());
+            return navigate(paramType, pathExpression, isEnum, false, clientFiltering);
         }
 
         // Path doesn't match any parameter - return empty
@@ -152,8 +221,30 @@ public class PathNavigator {
      * @return completion result with available fields/getters or enum constants
      */
     public CompletionResult navigate(Class<?> rootClass, String pathExpression, boolean isEnum, boolean isTargetCompletion) {
+        return navigate(rootClass, pathExpression, isEnum, isTargetCompletion, false);
+    }
+
+    /**
+     * Navigates through the path and returns completion candidates.
+     *
+     * In client filtering mode the partial last segment is not applied: the result holds every member of the
+     * resolved type with {@code isIncomplete=false}, so the client can filter further keystrokes locally until
+     * the typed path leaves {@link CompletionResult#resolvedPrefixPath()}.
+     *
+     * @param rootClass          the starting class
+     * @param pathExpression     the MapStruct path expression
+     * @param isEnum             true if this is for @ValueMapping (enum constants)
+     * @param isTargetCompletion true if this is for target attribute completion
+     * @param clientFiltering    true to return the unfiltered member list of the resolved type
+     * @return completion result with available fields/getters or enum constants
+     */
+    public CompletionResult navigate(Class<?> rootClass, String pathExpression, boolean isEnum, boolean isTargetCompletion,
+                                     boolean clientFiltering) {
+        RequestTrace trace = RequestTrace.current();
         try {
+            long parseStart = trace.mark();
             List<PathSegment> segments = pathParser.parse(pathExpression);
+            trace.span("parsePath", null, parseStart);
 
             if (segments.isEmpty()) {
                 // For enum types (@ValueMapping), return enum constants
@@ -173,7 +264,7 @@ public class PathNavigator {
                             pathExpression);
                 }
                 // Return all fields and getters from root class
-                List<FieldInfo> allFields = reflectionAnalyzer.getAllFieldsAndGetters(rootClass);
+                List<FieldInfo> allFields = memberTables.get(rootClass);
                 // For target completions, convert field kinds to SETTER
                 List<FieldInfo> resultFields = isTargetCompletion ? convertToSetterKind(allFields) : allFields;
                 return CompletionResult.of(rootClass.getName(),
@@ -188,7 +279,9 @@ public class PathNavigator {
 
             for (int i = 0; i < segments.size() - 1; i++) {
                 PathSegment segment = segments.get(i);
+                long segmentStart = trace.mark();
                 Class<?> nextType = resolveNextType(currentType, segment, lastField);
+                trace.span("segment", segment.name(), segmentStart);
 
                 if (nextType == null) {
                     // Cannot navigate further
@@ -214,7 +307,9 @@ public class PathNavigator {
             // navigate to it first
             if (prefix.isEmpty() || lastSegment.type() == PathSegment.SegmentType.METHOD) {
                 if (!prefix.isEmpty()) {
+                    long segmentStart = trace.mark();
                     Class<?> nextType = resolveNextType(currentType, lastSegment, lastField);
+                    trace.span("segment", lastSegment.name(), segmentStart);
                     if (nextType == null) {
                         return CompletionResult.empty(rootClass.getName(),
                                 rootClass.getSimpleName(),
@@ -235,10 +330,15 @@ public class PathNavigator {
             }
 
             // Get all fields and getters from current type
-            List<FieldInfo> allFields = reflectionAnalyzer.getAllFieldsAndGetters(currentType);
+            List<FieldInfo> allFields = memberTables.get(currentType);
+            long filterStart = trace.mark();
 
-            // Filter by prefix if needed
-            List<FieldInfo> filtered = NameMatcherUtil.filterByPrefix(allFields, prefix);
+            // Filter by prefix if needed (left to the client in client filtering mode)
+            boolean serverFiltered = !clientFiltering && !prefix.isEmpty();
+            List<FieldInfo> filtered = serverFiltered ? NameMatcherUtil.filterByPrefix(allFields, prefix) : allFields;
+            String resolvedPrefixPath = prefix.isEmpty()
+                    ? pathExpression
+                    : pathExpression.substring(0, pathExpression.lastIndexOf('.') + 1);
 
             // Apply context-specific filtering
             List<FieldInfo> resultFields;
@@ -250,11 +350,14 @@ public class PathNavigator {
                 resultFields = filterOutSetters(filtered);
             }
 
-            return CompletionResult.of(currentType.getName(),
+            CompletionResult result = CompletionResult.of(currentType.getName(),
                     currentType.getSimpleName(),
                     currentType.getPackageName(),
                     pathExpression,
-                    resultFields);
+                    resultFields)
+                    .withFiltering(serverFiltered, resolvedPrefixPath);
+            trace.span("filterSort", null, resultFields.size(), filterStart);
+            return result;
 
         } catch (Exception e) {
             // Return empty result on error
@@ -0,0 +1,152 @@
+package com.dsm.mapstruct.core.usecase.helper;
+
+import com.dsm.mapstruct.core.schedule.PriorityScheduler;
+import com.dsm.mapstruct.core.schedule.PriorityScheduler.Priority;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Speculative one-level lookahead: after a completion lists the members of a type, the next request most likely
+ * navigates into one of them, so their member tables are computed in the background ahead of time.
+ *
+ * The work is bounded and stays out of the way of foreground requests:
+ * - it runs as {@link Priority#BACKGROUND} work of the {@link PriorityScheduler}, with a bounded number of pending
+ *   lookaheads (new ones are dropped when full);
+ * - at most {@code mapstruct.speculation.maxTypes} member types per lookahead;
+ * - a lookahead pauses before every type while interactive requests or batch work run;
+ * - every lookahead can be cancelled, e.g. when the same session sends its next keystroke.
+ */
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SpeculativeLookahead {
+
+    private static final int DEFAULT_MAX_TYPES = 8;
+    private static final int DEFAULT_QUEUE_SIZE = 32;
+    // longest a lookahead waits for more urgent work before giving up on the rest of its types
+    private static final long MAX_YIELD_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    PathNavigator navigator;
+    PriorityScheduler scheduler;
+    int maxTypes;
+    int queueSize;
+    AtomicInteger pending = new AtomicInteger();
+    LongAdder scheduled = new LongAdder();
+    LongAdder dropped = new LongAdder();
+    LongAdder cancelled = new LongAdder();
+    LongAdder timedOut = new LongAdder();
+    LongAdder typesPrefetched = new LongAdder();
+
+    /**
+     * Snapshot of the lookahead work.
+     *
+     * @param dropped         lookaheads rejected because the queue was full
+     * @param cancelled       lookaheads cancelled before they finished
+     * @param timedOut        lookaheads that gave up after waiting too long for more urgent work
+     * @param typesPrefetched member tables computed ahead of time (cache hits included)
+     */
+    public record Stats(long scheduled, long dropped, long cancelled, long timedOut, long typesPrefetched) {
+    }
+
+    /**
+     * Handle of a scheduled lookahead.
+     */
+    public static final class Lookahead {
+
+        private static final Lookahead NONE = new Lookahead(null);
+
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final PriorityScheduler scheduler;
+
+        private Lookahead(PriorityScheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        public void cancel() {
+            if (!cancelled.getAndSet(true) && scheduler != null) {
+                // a lookahead waiting for its turn gives up right away
+                scheduler.signalWaiting();
+            }
+        }
+
+        boolean isCancelled() {
+            return cancelled.get();
+        }
+    }
+
+    public SpeculativeLookahead(PathNavigator navigator, PriorityScheduler scheduler) {
+        this(navigator, scheduler, Integer.getInteger("mapstruct.speculation.maxTypes", DEFAULT_MAX_TYPES),
+                Integer.getInteger("mapstruct.speculation.queueSize", DEFAULT_QUEUE_SIZE));
+    }
+
+    public SpeculativeLookahead(PathNavigator navigator, PriorityScheduler scheduler, int maxTypes, int queueSize) {
+        this.navigator = navigator;
+        this.scheduler = scheduler;
+        this.maxTypes = maxTypes;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Schedules the member tables of the member types of the named class; returns a handle to cancel it.
+     */
+    public Lookahead schedule(String className) {
+        if (className == null || className.isBlank()) {
+            return Lookahead.NONE;
+        }
+        if (pending.incrementAndGet() > queueSize) {
+            pending.decrementAndGet();
+            dropped.increment();
+            return Lookahead.NONE;
+        }
+        Lookahead lookahead = new Lookahead(scheduler);
+        scheduled.increment();
+        scheduler.submit(Priority.BACKGROUND, () -> {
+            try {
+                run(className, lookahead);
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+        return lookahead;
+    }
+
+    public Stats stats() {
+        return new Stats(scheduled.sum(), dropped.sum(), cancelled.sum(), timedOut.sum(), typesPrefetched.sum());
+    }
+
+    private void run(String className, Lookahead lookahead) {
+        try {
+            if (!awaitTurn(lookahead)) {
+                return;
+            }
+            Class<?> owner = Class.forName(className);
+            int prefetched = 0;
+            for (Class<?> memberType : navigator.neighbourTypes(owner)) {
+                if (prefetched >= maxTypes || !awaitTurn(lookahead)) {
+                    break;
+                }
+                navigator.memberTables().get(memberType);
+                prefetched++;
+                typesPrefetched.increment();
+            }
+        } catch (ClassNotFoundException | RuntimeException | LinkageError e) {
+            log.debug("Lookahead for {} failed: {}", className, e.toString());
+        }
+    }
+
+    /**
+     * Waits while more urgent work runs; false if the lookahead was cancelled or waited too long.
+     */
+    private boolean awaitTurn(Lookahead lookahead) {
+        if (!scheduler.awaitTurn(Priority.BACKGROUND, MAX_YIELD_NANOS, lookahead::isCancelled)) {
+            (lookahead.isCancelled() ? cancelled : timedOut).increment();
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.dsm.mapstruct.core.util;
+
+import com.dsm.mapstruct.core.jfr.ClassResolutionEvent;
+import com.dsm.mapstruct.core.trace.RequestTrace;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Loads types named by requests, reporting each lookup as a {@link ClassResolutionEvent} and a
+ * {@code resolveClass} span of the current {@link RequestTrace}.
+ */
+@UtilityClass
+public class ClassResolverUtil {
+
+    /**
+     * Loads a type by its binary name.
+     */
+    public static Class<?> resolveClass(String typeName) throws ClassNotFoundException {
+        RequestTrace trace = RequestTrace.current();
+        long start = trace.mark();
+        ClassResolutionEvent event = new ClassResolutionEvent();
+        event.begin();
+        Class<?> type = null;
+        try {
+            type = Class.forName(typeName);
+        } finally {
+            if (event.shouldCommit()) {
+                event.className = typeName;
+                event.found = type != null;
+                event.commit();
+            }
+        }
+        trace.span("resolveClass", typeName, start);
+        return type;
+    }
+}
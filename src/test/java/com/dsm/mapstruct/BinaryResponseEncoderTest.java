@@ -0,0 +1,123 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.adapter.api.ipc.codec.BinaryResponseEncoder;
+import com.dsm.mapstruct.adapter.api.ipc.codec.MessagePackWriter;
+import com.dsm.mapstruct.core.model.CompletionResult;
+import com.dsm.mapstruct.core.model.FieldInfo;
+import com.dsm.mapstruct.core.model.FieldInfo.FieldKind;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessageUnpacker;
+import org.msgpack.value.Value;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryResponseEncoderTest {
+
+    @Test
+    void testWriterIntegerBoundaries() throws IOException {
+        long[] values = {0, 127, 128, 255, 256, 65535, 65536, 4294967295L, 4294967296L,
+                -1, -32, -33, -128, -129, -32768, -32769, Integer.MIN_VALUE, Long.MIN_VALUE, Long.MAX_VALUE};
+        MessagePackWriter writer = new MessagePackWriter(4);
+        for (long value : values) {
+            writer.packLong(value);
+        }
+
+        try (MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(writer.toByteArray())) {
+            for (long value : values) {
+                assertThat(unpacker.unpackLong()).isEqualTo(value);
+            }
+            assertThat(unpacker.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    void testCompletionResultUsesColumnarLayout() throws IOException {
+        CompletionResult completion = CompletionResult.of("com.example.Person", "Person", "com.example", "person.",
+                List.of(
+                        new FieldInfo("lastName", "String", FieldKind.GETTER),
+                        new FieldInfo("age", "int", FieldKind.FIELD),
+                        new FieldInfo("firstName", "String", FieldKind.GETTER)
+                ));
+        JsonObject envelope = new JsonObject();
+        envelope.addProperty("id", "42");
+
+        byte[] frame = BinaryResponseEncoder.encodeFrame(envelope, completion);
+
+        int length = ByteBuffer.wrap(frame, 0, 4).getInt();
+        assertThat(length).isEqualTo(frame.length - 4);
+
+        try (MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(Arrays.copyOfRange(frame, 4, frame.length))) {
+            Map<String, Value> response = asMap(unpacker.unpackValue());
+            assertThat(response.get("id").asStringValue().asString()).isEqualTo("42");
+
+            Map<String, Value> result = asMap(response.get("result"));
+            assertThat(result.get("simpleName").asStringValue().asString()).isEqualTo("Person");
+
+            List<String> strings = result.get("strings").asArrayValue().list().stream()
+                    .map(v -> v.asStringValue().asString())
+                    .toList();
+            // "String" type name is stored once in the string table
+            assertThat(strings).containsExactly("age", "int", "firstName", "String", "lastName");
+
+            List<String> kindNames = result.get("kindNames").asArrayValue().list().stream()
+                    .map(v -> v.asStringValue().asString())
+                    .toList();
+            byte[] kinds = result.get("kinds").asBinaryValue().asByteArray();
+            List<Value> names = result.get("names").asArrayValue().list();
+            List<Value> types = result.get("types").asArrayValue().list();
+
+            assertThat(kinds).hasSize(3);
+            assertThat(strings.get(names.get(1).asIntegerValue().asInt())).isEqualTo("firstName");
+            assertThat(strings.get(types.get(1).asIntegerValue().asInt())).isEqualTo("String");
+            assertThat(kindNames.get(kinds[1])).isEqualTo("GETTER");
+            assertThat(kindNames.get(kinds[0])).isEqualTo("FIELD");
+        }
+    }
+
+    @Test
+    void testGenericEnvelopeIsConvertedFromJsonTree() throws IOException {
+        JsonObject result = new JsonObject();
+        result.addProperty("message", "pong");
+        result.addProperty("count", 3);
+        result.addProperty("ratio", 0.5);
+        JsonObject envelope = new JsonObject();
+        envelope.addProperty("id", "1");
+        envelope.add("result", result);
+
+        byte[] frame = BinaryResponseEncoder.encodeFrame(envelope, null);
+
+        try (MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(Arrays.copyOfRange(frame, 4, frame.length))) {
+            Map<String, Value> decoded = asMap(asMap(unpacker.unpackValue()).get("result"));
+            assertThat(decoded.get("message").asStringValue().asString()).isEqualTo("pong");
+            assertThat(decoded.get("count").asIntegerValue().asLong()).isEqualTo(3);
+            assertThat(decoded.get("ratio").asFloatValue().toDouble()).isEqualTo(0.5);
+        }
+    }
+
+    @Test
+    void testSplicedFrameMatchesFullEncoding() {
+        CompletionResult completion = CompletionResult.of("com.example.Person", "Person", "com.example", "",
+                List.of(new FieldInfo("name", "String", FieldKind.FIELD)));
+        JsonObject envelope = new JsonObject();
+        envelope.addProperty("id", "7");
+
+        byte[] spliced = BinaryResponseEncoder.spliceFrame(envelope, BinaryResponseEncoder.encodeCompletion(completion));
+
+        assertThat(spliced).isEqualTo(BinaryResponseEncoder.encodeFrame(envelope, completion));
+    }
+
+    private static Map<String, Value> asMap(Value value) {
+        Map<String, Value> map = new HashMap<>();
+        value.asMapValue().entrySet().forEach(e -> map.put(e.getKey().asStringValue().asString(), e.getValue()));
+        return map;
+    }
+}
@@ -0,0 +1,81 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.adapter.api.ipc.CompletionDeltaTracker;
+import com.dsm.mapstruct.core.model.CompletionResult;
+import com.dsm.mapstruct.core.model.FieldInfo;
+import com.dsm.mapstruct.core.model.FieldInfo.FieldKind;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletionDeltaTrackerTest {
+
+    private static final FieldInfo CITY = new FieldInfo("city", "String", FieldKind.GETTER);
+    private static final FieldInfo STATE = new FieldInfo("state", "String", FieldKind.GETTER);
+    private static final FieldInfo STREET = new FieldInfo("street", "String", FieldKind.GETTER);
+
+    @Test
+    void testFirstResultIsFull() {
+        CompletionDeltaTracker tracker = new CompletionDeltaTracker();
+
+        CompletionDeltaTracker.Outcome outcome = tracker.track(result("address.", CITY, STATE, STREET), null);
+
+        assertThat(outcome.isDelta()).isFalse();
+        assertThat(outcome.version()).isEqualTo(1);
+    }
+
+    @Test
+    void testNarrowingProducesRemovedNames() {
+        CompletionDeltaTracker tracker = new CompletionDeltaTracker();
+        tracker.track(result("address.", CITY, STATE, STREET), null);
+
+        CompletionDeltaTracker.Outcome outcome = tracker.track(result("address.st", STATE, STREET), 1L);
+
+        assertThat(outcome.isDelta()).isTrue();
+        assertThat(outcome.baseVersion()).isEqualTo(1);
+        assertThat(outcome.version()).isEqualTo(2);
+        assertThat(outcome.added()).isEmpty();
+        assertThat(outcome.removed()).containsExactly("city");
+    }
+
+    @Test
+    void testWideningProducesAddedEntries() {
+        CompletionDeltaTracker tracker = new CompletionDeltaTracker();
+        tracker.track(result("address.st", STATE, STREET), null);
+
+        CompletionDeltaTracker.Outcome outcome = tracker.track(result("address.", CITY, STATE, STREET), 1L);
+
+        assertThat(outcome.isDelta()).isTrue();
+        assertThat(outcome.added()).containsExactly(CITY);
+        assertThat(outcome.removed()).isEmpty();
+    }
+
+    @Test
+    void testVersionMismatchForcesFullResync() {
+        CompletionDeltaTracker tracker = new CompletionDeltaTracker();
+        tracker.track(result("address.", CITY, STATE, STREET), null);
+        tracker.track(result("address.s", STATE, STREET), 1L);
+
+        // client lost version 2 and still holds version 1
+        CompletionDeltaTracker.Outcome outcome = tracker.track(result("address.st", STATE, STREET), 1L);
+
+        assertThat(outcome.isDelta()).isFalse();
+        assertThat(outcome.version()).isEqualTo(3);
+    }
+
+    @Test
+    void testUnrelatedListsAreSentInFull() {
+        CompletionDeltaTracker tracker = new CompletionDeltaTracker();
+        tracker.track(result("address.c", CITY), null);
+
+        CompletionDeltaTracker.Outcome outcome = tracker.track(result("address.s", STATE, STREET), 1L);
+
+        assertThat(outcome.isDelta()).isFalse();
+    }
+
+    private static CompletionResult result(String path, FieldInfo... fields) {
+        return CompletionResult.of("com.example.Address", "Address", "com.example", path, List.of(fields));
+    }
+}
@@ -0,0 +1,63 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.adapter.api.ipc.ConnectionSupervisor;
+import com.dsm.mapstruct.adapter.api.ipc.IpcSession;
+import com.dsm.mapstruct.adapter.api.ipc.ShutdownPolicy;
+import com.dsm.mapstruct.adapter.api.ipc.codec.ResponseEncoding;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConnectionSupervisorTest {
+
+    @Test
+    void testClosesOnlyStaleConnection() throws InterruptedException {
+        ConnectionSupervisor supervisor = new ConnectionSupervisor(200, ShutdownPolicy.NEVER);
+
+        IpcSession stale = new IpcSession();
+        stale.encoding(ResponseEncoding.MSGPACK);
+        CountDownLatch staleClosed = new CountDownLatch(1);
+        supervisor.register(stale, staleClosed::countDown);
+
+        IpcSession active = new IpcSession();
+        AtomicBoolean activeClosed = new AtomicBoolean();
+        supervisor.register(active, () -> activeClosed.set(true));
+
+        // Keep the second connection busy while the first one goes quiet
+        long until = System.currentTimeMillis() + 600;
+        while (System.currentTimeMillis() < until) {
+            active.touch();
+            Thread.sleep(50);
+        }
+
+        assertThat(staleClosed.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(stale.encoding()).as("session state released").isEqualTo(ResponseEncoding.JSON);
+        assertThat(activeClosed).isFalse();
+        assertThat(supervisor.openConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void testConnectionClosedIsIdempotent() {
+        ConnectionSupervisor supervisor = new ConnectionSupervisor(60_000, ShutdownPolicy.NEVER);
+        ConnectionSupervisor.Registration registration = supervisor.register(new IpcSession(), () -> { });
+
+        supervisor.connectionClosed(registration, "client disconnected");
+        supervisor.connectionClosed(registration, "connection error");
+
+        assertThat(supervisor.openConnections()).isZero();
+    }
+
+    @Test
+    void testShutdownPolicyOptions() {
+        assertThat(ShutdownPolicy.fromOption("last-client").shouldExit(0)).isTrue();
+        assertThat(ShutdownPolicy.fromOption("last-client").shouldExit(1)).isFalse();
+        assertThat(ShutdownPolicy.fromOption("never").shouldExit(0)).isFalse();
+        assertThatThrownBy(() -> ShutdownPolicy.fromOption("sometimes"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
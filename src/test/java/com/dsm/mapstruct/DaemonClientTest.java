@@ -0,0 +1,133 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.adapter.api.cmd.DaemonClient;
+import com.dsm.mapstruct.testdata.ServerSockets;
+import com.dsm.mapstruct.testdata.TestClasses.Address;
+import com.dsm.mapstruct.testdata.TestClasses.Person;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Command-line forwarding to a running IPC server: the forwarding JVM must answer from the daemon
+ * without loading Gson or Guava, and fall back to in-process introspection when no daemon is reachable.
+ */
+class DaemonClientTest {
+
+    private static final String JAR_PATH = "target/mapstruct-path-explorer.jar";
+    private static final String CLASSPATH = JAR_PATH + ":target/test-classes";
+
+    private static Process serverProcess;
+    private static Path socketPath;
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        assumeTrue(new File(JAR_PATH).exists(), "Skipping daemon client test - JAR not built yet (run 'mvn package')");
+
+        socketPath = Path.of("/tmp/test-mapstruct-daemon-" + System.currentTimeMillis() + ".sock");
+        Files.deleteIfExists(socketPath);
+        serverProcess = new ProcessBuilder("java", "-cp", CLASSPATH, "com.dsm.mapstruct.IpcServer",
+                socketPath.toString(), "--shutdown=never")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        ServerSockets.awaitServer(socketPath, serverProcess, Duration.ofSeconds(5));
+    }
+
+    @AfterAll
+    static void stopServer() throws Exception {
+        if (serverProcess != null) {
+            serverProcess.destroy();
+            serverProcess.waitFor();
+        }
+        if (socketPath != null) {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    @Test
+    void testForwardsToDaemonWithoutLoadingGsonOrGuava() throws Exception {
+        List<String> output = runCli("-Dmapstruct.socket=" + socketPath, "-verbose:class");
+
+        assertThat(output).noneMatch(line -> line.contains("com.google.gson.") || line.contains("com.google.common."));
+        assertThat(output).noneMatch(line -> line.contains("com.dsm.mapstruct.core.usecase."));
+        // everything but the class loading log is the pretty-printed result
+        JsonObject result = new Gson().fromJson(String.join("\n", output.stream().filter(line -> !line.startsWith("[")).toList()),
+                JsonObject.class);
+        assertThat(result.get("className").getAsString()).isEqualTo(Address.class.getName());
+    }
+
+    @Test
+    void testForwardedOutputMatchesInProcessOutput() throws Exception {
+        List<String> forwarded = runCli("-Dmapstruct.socket=" + socketPath);
+        List<String> inProcess = runCli("-Dmapstruct.socket=" + socketPath, "--no-daemon");
+
+        assertThat(forwarded).isEqualTo(inProcess);
+    }
+
+    @Test
+    void testForwardsOnlyToAnExplicitSocket() {
+        assertThat(DaemonClient.locateSocket(socketPath.toString())).isEqualTo(socketPath);
+        assertThat(DaemonClient.locateSocket("/nonexistent/mapstruct-test.sock")).isNull();
+        assumeTrue(System.getenv("MAPSTRUCT_IPC_SOCKET") == null && System.getProperty("mapstruct.socket") == null);
+        assertThat(DaemonClient.locateSocket(null)).isNull();
+    }
+
+    @Test
+    void testGivesUpOnDaemonThatDoesNotAnswer() throws Exception {
+        Path silentSocket = Path.of("/tmp/test-mapstruct-silent-" + System.currentTimeMillis() + ".sock");
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(silentSocket));
+            long start = System.nanoTime();
+
+            assertThat(DaemonClient.explorePath(silentSocket, Person.class.getName(), "address.", 200)).isNull();
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+        } finally {
+            Files.deleteIfExists(silentSocket);
+        }
+    }
+
+    @Test
+    void testFallsBackToInProcessWithoutDaemon() throws Exception {
+        List<String> output = runCli("-Dmapstruct.socket=/nonexistent/mapstruct-test.sock");
+
+        JsonObject result = new Gson().fromJson(String.join("\n", output), JsonObject.class);
+        assertThat(result.get("className").getAsString()).isEqualTo(Address.class.getName());
+    }
+
+    private static List<String> runCli(String... options) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("java"));
+        List<String> toolOptions = new ArrayList<>();
+        for (String option : options) {
+            (option.startsWith("--") ? toolOptions : command).add(option);
+        }
+        command.addAll(List.of("-cp", CLASSPATH, "com.dsm.mapstruct.MapStructPathTool"));
+        command.addAll(toolOptions);
+        command.addAll(List.of(Person.class.getName(), "address."));
+        Process process = new ProcessBuilder(command).start();
+        // drain before waiting: the class loading log does not fit into the pipe buffer
+        String stdout = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(process.waitFor(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(process.exitValue()).as(stdout).isZero();
+        return stdout.lines().toList();
+    }
+}
@@ -1,9 +1,14 @@
 package com.dsm.mapstruct;
 
+import com.dsm.mapstruct.testdata.MissingDependency;
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import org.junit.jupiter.api.*;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessageUnpacker;
+import org.msgpack.value.Value;
 
 import java.io.*;
 import java.net.StandardProtocolFamily;
@@ -12,6 +17,10 @@ import java.nio.channels.Channels;
 import java.nio.channels.SocketChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
@@ -42,7 +51,7 @@ class IpcServerTest {
         String testClassesPath = "target/test-classes";
 
         // Include test-classes in classpath so we can test with test domain classes
-        String classpath = jarPath + ":" + testClassesPath;
+        String classpath = jarPath + ":" + testClassesPath + ":" + MissingDependency.compile();
 
         // Start server process
         ProcessBuilder pb = new ProcessBuilder(
@@ -66,8 +75,20 @@ class IpcServerTest {
 
         // Connect client
         UnixDomainSocketAddress address = UnixDomainSocketAddress.of(socketPath);
-        client = SocketChannel.open(StandardProtocolFamily.UNIX);
-        client.connect(address);
+        // the socket file exists from bind on, the server may not listen yet
+        for (attempts = 0; client == null; attempts++) {
+            SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            try {
+                channel.connect(address);
+                client = channel;
+            } catch (IOException e) {
+                channel.close();
+                if (attempts >= 50) {
+                    throw e;
+                }
+                Thread.sleep(100);
+            }
+        }
 
         in = new BufferedReader(new InputStreamReader(Channels.newInputStream(client)));
         out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(client)));
@@ -420,4 +441,189 @@ class IpcServerTest {
         }
         assertThat(hasBuild).as("Should not include build() method").isFalse();
     }
+
+    @Test
+    @Order(11)
+    void testRepeatedExplorePathIsServedFromResponseCache() throws IOException {
+        JsonObject source = new JsonObject();
+        source.addProperty("name", "person");
+        source.addProperty("type", "com.dsm.mapstruct.testdata.TestClasses$Person");
+        JsonObject params = new JsonObject();
+        params.add("sources", gson.toJsonTree(new JsonObject[]{source}));
+        params.addProperty("pathExpression", "person.address.");
+
+        JsonObject first = sendRequest("explore_path", params);
+        long hitsBefore = sendRequest("stats", null).getAsJsonObject("result")
+                .getAsJsonObject("responseCache").get("hits").getAsLong();
+        JsonObject second = sendRequest("explore_path", params);
+        long hitsAfter = sendRequest("stats", null).getAsJsonObject("result")
+                .getAsJsonObject("responseCache").get("hits").getAsLong();
+
+        assertThat(hitsAfter).isEqualTo(hitsBefore + 1);
+        assertThat(second.get("result")).isEqualTo(first.get("result"));
+
+        JsonObject invalidated = sendRequest("invalidate_caches", null);
+        assertThat(invalidated.getAsJsonObject("result").get("generation").getAsLong()).isPositive();
+        assertThat(sendRequest("explore_path", params).get("result")).isEqualTo(first.get("result"));
+    }
+
+    @Test
+    @Order(12)
+    void testStatsReportsPerMethodMetrics() throws IOException {
+        sendRequest("ping", null);
+        sendRequest("unknown_method", null);
+
+        JsonObject stats = sendRequest("stats", null).getAsJsonObject("result");
+        JsonObject methods = stats.getAsJsonObject("methods");
+
+        JsonObject ping = methods.getAsJsonObject("ping");
+        assertThat(ping.get("requests").getAsLong()).isPositive();
+        assertThat(ping.get("errors").getAsLong()).isZero();
+        assertThat(ping.get("bytesIn").getAsLong()).isPositive();
+        assertThat(ping.get("bytesOut").getAsLong()).isPositive();
+        JsonObject latency = ping.getAsJsonObject("latencyMicros");
+        assertThat(latency.get("p99").getAsDouble()).isGreaterThanOrEqualTo(latency.get("p50").getAsDouble());
+        assertThat(latency.get("max").getAsDouble()).isGreaterThanOrEqualTo(latency.get("p99").getAsDouble());
+
+        assertThat(methods.getAsJsonObject("unknown").get("errors").getAsLong()).isPositive();
+        assertThat(methods.getAsJsonObject("explore_path").get("requests").getAsLong()).isPositive();
+        assertThat(stats.has("memberTables")).isTrue();
+    }
+
+    @Test
+    @Order(13)
+    void testTraceAddsTimingBreakdown() throws IOException {
+        JsonObject source = new JsonObject();
+        source.addProperty("name", "person");
+        source.addProperty("type", "com.dsm.mapstruct.testdata.TestClasses$Person");
+        JsonObject params = new JsonObject();
+        params.add("sources", gson.toJsonTree(new JsonObject[]{source}));
+        params.addProperty("pathExpression", "person.address.");
+
+        JsonObject untraced = sendRequest("explore_path", params);
+        params.addProperty("trace", true);
+        JsonObject traced = sendRequest("explore_path", params);
+
+        assertThat(untraced.has("timings")).isFalse();
+        assertThat(traced.get("result")).isEqualTo(untraced.get("result"));
+
+        JsonObject timings = traced.getAsJsonObject("timings");
+        assertThat(timings.get("totalNanos").getAsLong()).isPositive();
+        List<String> spanNames = new ArrayList<>();
+        timings.getAsJsonArray("spans").forEach(span -> spanNames.add(span.getAsJsonObject().get("name").getAsString()));
+        assertThat(spanNames).contains("parseRequest", "resolveClass", "parsePath", "segment", "filterSort", "dedupe", "encode");
+        assertThat(spanNames).anyMatch(name -> name.startsWith("memberTable."));
+    }
+
+    @Test
+    @Order(14)
+    void testWarmupIntrospectsReachableTypes() throws IOException {
+        JsonObject params = new JsonObject();
+        params.add("types", gson.toJsonTree(new String[]{
+                "com.dsm.mapstruct.testdata.TestClasses$Order", "com.example.DoesNotExist"}));
+        params.addProperty("depth", 1);
+        params.addProperty("wait", true);
+
+        JsonObject result = sendRequest("warmup", params).getAsJsonObject("result");
+
+        assertThat(result.get("roots").getAsInt()).isEqualTo(1);
+        assertThat(result.get("depth").getAsInt()).isEqualTo(1);
+        assertThat(result.getAsJsonArray("unknown").get(0).getAsString()).isEqualTo("com.example.DoesNotExist");
+        // Order -> OrderItem, Person
+        assertThat(result.get("types").getAsInt()).isEqualTo(3);
+        assertThat(result.get("failed").getAsInt()).isZero();
+    }
+
+    @Test
+    @Order(15)
+    void testTypeWithMissingDependencyReturnsErrorAndKeepsConnection() throws IOException {
+        JsonObject source = new JsonObject();
+        source.addProperty("name", "holder");
+        source.addProperty("type", MissingDependency.HOLDER);
+        JsonObject params = new JsonObject();
+        params.add("sources", gson.toJsonTree(new JsonObject[]{source}));
+        params.addProperty("pathExpression", "holder.");
+        params.addProperty("isEnum", false);
+
+        JsonObject response = sendRequest("explore_path", params);
+
+        // NoClassDefFoundError is a LinkageError, not an Exception: it must still become an error response
+        assertThat(response.has("error")).isTrue();
+        assertThat(response.get("error").getAsString()).contains("missingdep/Gone");
+        assertThat(sendRequest("ping", null).getAsJsonObject("result").get("message").getAsString()).isEqualTo("pong");
+    }
+
+    @Test
+    @Order(16)
+    void testWarmupWithMalformedParamsReturnsError() throws IOException {
+        JsonObject badDepth = new JsonObject();
+        badDepth.addProperty("depth", "x");
+        JsonObject badMapper = new JsonObject();
+        badMapper.add("mapper", new JsonObject());
+        JsonObject badTypes = new JsonObject();
+        badTypes.add("types", gson.toJsonTree(new Object[]{"com.dsm.mapstruct.testdata.TestClasses$Order", 1}));
+
+        assertThat(sendRequest("warmup", badDepth).get("error").getAsString()).contains("depth");
+        assertThat(sendRequest("warmup", badMapper).get("error").getAsString()).contains("mapper");
+        assertThat(sendRequest("warmup", badTypes).get("error").getAsString()).contains("types");
+    }
+
+    /**
+     * Switches the connection to MessagePack, so it must stay the last test on this connection.
+     */
+    @Test
+    @Order(100)
+    void testInitializeNegotiatesMessagePackEncoding() throws IOException {
+        JsonObject initParams = new JsonObject();
+        JsonArray encodings = new JsonArray();
+        encodings.add("cbor");
+        encodings.add("msgpack");
+        initParams.add("encodings", encodings);
+
+        JsonObject initResponse = sendRequest("initialize", initParams);
+
+        assertThat(initResponse.get("result").getAsJsonObject().get("encoding").getAsString()).isEqualTo("msgpack");
+        assertThat(initResponse.get("result").getAsJsonObject().get("framing").getAsString()).isEqualTo("length-prefixed");
+
+        JsonObject params = new JsonObject();
+        JsonObject source = new JsonObject();
+        source.addProperty("name", "person");
+        source.addProperty("type", "com.dsm.mapstruct.testdata.TestClasses$Person");
+        params.add("sources", gson.toJsonTree(new JsonObject[]{source}));
+        params.addProperty("pathExpression", "address.");
+        params.addProperty("isEnum", false);
+
+        JsonObject request = new JsonObject();
+        request.addProperty("id", "binary-1");
+        request.addProperty("method", "explore_path");
+        request.add("params", params);
+        out.write(gson.toJson(request) + "\n");
+        out.flush();
+
+        // Length-prefixed frame: 4-byte big-endian size, then MessagePack payload
+        DataInputStream frameIn = new DataInputStream(Channels.newInputStream(client));
+        byte[] payload = new byte[frameIn.readInt()];
+        frameIn.readFully(payload);
+
+        try (MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(payload)) {
+            Map<String, Value> response = new HashMap<>();
+            unpacker.unpackValue().asMapValue().entrySet()
+                    .forEach(e -> response.put(e.getKey().asStringValue().asString(), e.getValue()));
+
+            assertThat(response.get("id").asStringValue().asString()).isEqualTo("binary-1");
+            Map<String, Value> result = new HashMap<>();
+            response.get("result").asMapValue().entrySet()
+                    .forEach(e -> result.put(e.getKey().asStringValue().asString(), e.getValue()));
+
+            assertThat(result.get("className").asStringValue().asString())
+                    .isEqualTo("com.dsm.mapstruct.testdata.TestClasses$Address");
+            List<String> strings = result.get("strings").asArrayValue().list().stream()
+                    .map(v -> v.asStringValue().asString())
+                    .toList();
+            List<String> names = result.get("names").asArrayValue().list().stream()
+                    .map(v -> strings.get(v.asIntegerValue().asInt()))
+                    .toList();
+            assertThat(names).contains("street", "city", "state", "zipCode", "country");
+        }
+    }
 }
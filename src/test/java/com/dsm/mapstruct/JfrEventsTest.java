@@ -0,0 +1,72 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.core.cache.MemberTableCache;
+import com.dsm.mapstruct.core.model.SourceParameter;
+import com.dsm.mapstruct.core.usecase.ExplorePathUseCase;
+import com.dsm.mapstruct.core.usecase.helper.ReflectionAnalyzer;
+import com.dsm.mapstruct.testdata.TestClasses;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testNavigationEmitsResolutionAndMemberTableEvents() throws IOException {
+        List<RecordedEvent> events = record(() -> new ExplorePathUseCase().explore(new ExplorePathUseCase.ExplorePathParams(
+                List.of(new SourceParameter("person", TestClasses.Person.class.getName())), "person.address.", false)));
+
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("com.dsm.mapstruct.ClassResolution");
+            assertThat(event.getString("className")).isEqualTo(TestClasses.Person.class.getName());
+            assertThat(event.getBoolean("found")).isTrue();
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("com.dsm.mapstruct.MemberTableBuild");
+            assertThat(event.getString("className")).isEqualTo(TestClasses.Address.class.getName());
+            assertThat(event.getInt("memberCount")).isPositive();
+        });
+    }
+
+    @Test
+    void testSizeEvictionEmitsCacheEvictionEvent() throws IOException {
+        MemberTableCache cache = new MemberTableCache(new ReflectionAnalyzer()::getAllFieldsAndGetters, 1);
+
+        List<RecordedEvent> events = record(() -> {
+            cache.get(TestClasses.Person.class);
+            cache.get(TestClasses.Address.class);
+        });
+
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("com.dsm.mapstruct.CacheEviction");
+            assertThat(event.getString("cache")).isEqualTo("memberTables");
+            assertThat(event.getString("className")).isEqualTo(TestClasses.Person.class.getName());
+        });
+    }
+
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        Path file = tempDir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.dsm.mapstruct.ClassResolution").withThreshold(Duration.ZERO);
+            recording.enable("com.dsm.mapstruct.MemberTableBuild").withThreshold(Duration.ZERO);
+            recording.enable("com.dsm.mapstruct.CacheEviction");
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+}
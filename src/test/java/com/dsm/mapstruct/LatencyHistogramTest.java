@@ -0,0 +1,56 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.adapter.api.ipc.metrics.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testEmptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.percentile(99)).isZero();
+        assertThat(histogram.mean()).isZero();
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 50; i++) {
+            histogram.record(i);
+        }
+
+        assertThat(histogram.percentile(50)).isEqualTo(25);
+        assertThat(histogram.percentile(100)).isEqualTo(50);
+        assertThat(histogram.mean()).isEqualTo(25.5);
+    }
+
+    @Test
+    void testPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 1..100_000 microseconds in nanoseconds
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        assertThat(histogram.count()).isEqualTo(100_000);
+        assertThat((double) histogram.percentile(50)).isCloseTo(50_000_000, within(50_000_000 * 0.035));
+        assertThat((double) histogram.percentile(99)).isCloseTo(99_000_000, within(99_000_000 * 0.035));
+        assertThat((double) histogram.percentile(99.9)).isCloseTo(99_900_000, within(99_900_000 * 0.035));
+        assertThat(histogram.percentile(100)).isEqualTo(histogram.max()).isEqualTo(100_000_000);
+    }
+
+    @Test
+    void testExtremeValuesDoNotOverflow() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);
+
+        assertThat(histogram.percentile(1)).isZero();
+        assertThat(histogram.percentile(100)).isEqualTo(Long.MAX_VALUE);
+    }
+}
@@ -1,6 +1,9 @@
 package com.dsm.mapstruct;
 
 import com.dsm.mapstruct.adapter.api.cmd.CommandToolRunner;
+import com.dsm.mapstruct.testdata.MissingDependency;
+import com.dsm.mapstruct.testdata.TestClasses.Address;
+import com.dsm.mapstruct.testdata.TestClasses.Order;
 import com.dsm.mapstruct.testdata.TestClasses.Person;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
@@ -11,7 +14,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.File;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -29,12 +38,15 @@ class MapStructPathToolTest {
 
     @BeforeEach
     void setUpStreams() {
+        // never forward to an IPC server that happens to run on this machine
+        System.setProperty("mapstruct.socket", "/nonexistent/mapstruct-test.sock");
         System.setOut(new PrintStream(outContent));
         System.setErr(new PrintStream(errContent));
     }
 
     @AfterEach
     void restoreStreams() {
+        System.clearProperty("mapstruct.socket");
         System.setOut(originalOut);
         System.setErr(originalErr);
     }
@@ -317,4 +329,83 @@ class MapStructPathToolTest {
         exitCode = CommandToolRunner.run(new String[]{"com.invalid.Class", ""});
         assertThat(exitCode).isEqualTo(1);
     }
+
+    @Test
+    void testBatchPreservesInputOrder() throws IOException {
+        String person = Person.class.getName();
+        List<String> paths = List.of("person.", "person.address.", "person.orders.first.", "person.address.str", "person.");
+        List<String> expectedTypes = List.of(person, Address.class.getName(), Order.class.getName(), Address.class.getName(), person);
+        List<String> lines = paths.stream()
+                .map(path -> "{\"sources\":[{\"name\":\"person\",\"type\":\"" + person + "\"}],\"pathExpression\":\"" + path + "\"}")
+                .toList();
+        Path input = Files.createTempFile("mapstruct-batch", ".jsonl");
+        try {
+            Files.write(input, lines);
+
+            int exitCode = CommandToolRunner.run(new String[]{"--batch", input.toString()});
+
+            assertThat(exitCode).isEqualTo(0);
+            List<String> output = outContent.toString().lines().toList();
+            assertThat(output).hasSize(paths.size());
+            for (int i = 0; i < paths.size(); i++) {
+                JsonObject json = gson.fromJson(output.get(i), JsonObject.class);
+                assertThat(json.get("className").getAsString()).isEqualTo(expectedTypes.get(i));
+            }
+        } finally {
+            Files.deleteIfExists(input);
+        }
+    }
+
+    @Test
+    void testBatchReportsFailedLinesInPlace() throws IOException {
+        Path input = Files.createTempFile("mapstruct-batch", ".jsonl");
+        try {
+            Files.write(input, List.of(
+                    "{\"sources\":[{\"name\":\"person\",\"type\":\"" + Person.class.getName() + "\"}],\"pathExpression\":\"person.\"}",
+                    "not json",
+                    "{\"sources\":[{\"name\":\"x\",\"type\":\"com.invalid.Class\"}],\"pathExpression\":\"x.\"}"
+            ));
+
+            int exitCode = CommandToolRunner.run(new String[]{"--batch", input.toString()});
+
+            assertThat(exitCode).isEqualTo(1);
+            List<String> output = outContent.toString().lines().toList();
+            assertThat(output).hasSize(3);
+            assertThat(gson.fromJson(output.get(0), JsonObject.class).has("completions")).isTrue();
+            assertThat(gson.fromJson(output.get(1), JsonObject.class).has("error")).isTrue();
+            assertThat(gson.fromJson(output.get(2), JsonObject.class).has("error")).isTrue();
+            assertThat(errContent.toString()).contains("2 batch request(s) failed");
+        } finally {
+            Files.deleteIfExists(input);
+        }
+    }
+
+    @Test
+    void testBatchContinuesAfterTypeWithMissingDependency() throws Exception {
+        Path input = Files.createTempFile("mapstruct-batch", ".jsonl");
+        try {
+            String person = "{\"sources\":[{\"name\":\"person\",\"type\":\"" + Person.class.getName() + "\"}],\"pathExpression\":\"person.\"}";
+            Files.write(input, List.of(
+                    person,
+                    "{\"sources\":[{\"name\":\"h\",\"type\":\"" + MissingDependency.HOLDER + "\"}],\"pathExpression\":\"h.\"}",
+                    person
+            ));
+            // the fixture has to be on the application classpath, so the batch runs in a child JVM
+            String classpath = System.getProperty("java.class.path") + File.pathSeparator + MissingDependency.compile();
+            Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-Dmapstruct.socket=/nonexistent/mapstruct-test.sock", "-cp", classpath,
+                    MapStructPathTool.class.getName(), "--batch", input.toString())
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            List<String> output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+
+            assertThat(process.waitFor()).isEqualTo(1);
+            assertThat(output).hasSize(3);
+            assertThat(gson.fromJson(output.get(0), JsonObject.class).has("completions")).isTrue();
+            assertThat(gson.fromJson(output.get(1), JsonObject.class).get("error").getAsString()).contains("missingdep/Gone");
+            assertThat(gson.fromJson(output.get(2), JsonObject.class).has("completions")).isTrue();
+        } finally {
+            Files.deleteIfExists(input);
+        }
+    }
 }
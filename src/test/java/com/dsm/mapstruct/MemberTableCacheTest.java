@@ -0,0 +1,116 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.core.cache.MemberTableCache;
+import com.dsm.mapstruct.core.model.FieldInfo;
+import com.dsm.mapstruct.core.model.FieldInfo.FieldKind;
+import com.dsm.mapstruct.testdata.TestClasses;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberTableCacheTest {
+
+    private static final List<FieldInfo> TABLE = List.of(new FieldInfo("name", "String", FieldKind.FIELD));
+
+    @Test
+    void testConcurrentColdLoadsIntrospectOnce() throws Exception {
+        AtomicInteger introspections = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        MemberTableCache cache = new MemberTableCache(type -> {
+            introspections.incrementAndGet();
+            loadStarted.countDown();
+            await(releaseLoad);
+            return TABLE;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<FieldInfo>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(TestClasses.Person.class)));
+            assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.get(TestClasses.Person.class)));
+            }
+            // waiters register as contended before the load finishes
+            while (cache.stats().contendedWaits() < 3) {
+                Thread.sleep(5);
+            }
+            releaseLoad.countDown();
+
+            for (Future<List<FieldInfo>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(TABLE);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(introspections).hasValue(1);
+        MemberTableCache.Stats stats = cache.stats();
+        assertThat(stats.loads()).isEqualTo(1);
+        assertThat(stats.contendedWaits()).isEqualTo(3);
+        assertThat(stats.entries()).isEqualTo(1);
+    }
+
+    @Test
+    void testSlowLoadDoesNotBlockUnrelatedTypes() throws Exception {
+        CountDownLatch releaseSlowLoad = new CountDownLatch(1);
+        CountDownLatch slowLoadStarted = new CountDownLatch(1);
+        MemberTableCache cache = new MemberTableCache(type -> {
+            if (type == TestClasses.Person.class) {
+                slowLoadStarted.countDown();
+                await(releaseSlowLoad);
+            }
+            return TABLE;
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<FieldInfo>> slow = executor.submit(() -> cache.get(TestClasses.Person.class));
+            assertThat(slowLoadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(cache.get(TestClasses.Address.class)).isSameAs(TABLE);
+
+            releaseSlowLoad.countDown();
+            assertThat(slow.get(5, TimeUnit.SECONDS)).isSameAs(TABLE);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRepeatedLookupsHitAndFailuresAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        MemberTableCache cache = new MemberTableCache(type -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("boom");
+            }
+            return TABLE;
+        });
+
+        assertThatThrownBy(() -> cache.get(TestClasses.Person.class)).hasMessage("boom");
+        assertThat(cache.get(TestClasses.Person.class)).isSameAs(TABLE);
+        assertThat(cache.get(TestClasses.Person.class)).isSameAs(TABLE);
+
+        assertThat(calls).hasValue(2);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.dsm.mapstruct;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for the selector-based transport ({@code --transport=nio}) with several concurrent clients.
+ */
+class NioIpcServerTest {
+
+    private static Process serverProcess;
+    private static Path socketPath;
+    private static final Gson gson = new Gson();
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        String jarPath = "target/mapstruct-path-explorer.jar";
+        assumeTrue(new File(jarPath).exists(), "Skipping NIO server test - JAR not built yet (run 'mvn package')");
+
+        socketPath = Path.of("/tmp/test-mapstruct-nio-" + System.currentTimeMillis() + ".sock");
+        Files.deleteIfExists(socketPath);
+
+        ProcessBuilder pb = new ProcessBuilder(
+                "java",
+                "-Dmapstruct.ipc.maxRequestBytes=65536",
+                "-cp",
+                jarPath + ":target/test-classes",
+                "com.dsm.mapstruct.IpcServer",
+                socketPath.toString(),
+                "--transport=nio",
+                // the tests connect one after another, the server must outlive each of them
+                "--shutdown=never"
+        );
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        serverProcess = pb.start();
+
+        int attempts = 0;
+        while (!Files.exists(socketPath) && attempts < 50) {
+            Thread.sleep(100);
+            attempts++;
+        }
+        assertThat(socketPath).exists();
+    }
+
+    @AfterAll
+    static void stopServer() throws Exception {
+        if (serverProcess != null) {
+            serverProcess.destroy();
+            serverProcess.waitFor();
+        }
+        if (socketPath != null) {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    @Test
+    void testConcurrentClientsAndPipelinedRequests() throws IOException {
+        try (SocketChannel first = connect(); SocketChannel second = connect()) {
+            BufferedWriter firstOut = writer(first);
+            BufferedWriter secondOut = writer(second);
+
+            // Pipeline several requests on the first connection before reading anything
+            firstOut.write(request("1", "ping", new JsonObject()));
+            firstOut.write(request("2", "explore_path", exploreParams("address.")));
+            firstOut.write(request("3", "heartbeat", new JsonObject()));
+            firstOut.flush();
+
+            secondOut.write(request("a", "ping", new JsonObject()));
+            secondOut.flush();
+
+            BufferedReader secondIn = reader(second);
+            assertThat(JsonParser.parseString(secondIn.readLine()).getAsJsonObject().get("id").getAsString())
+                    .isEqualTo("a");
+
+            BufferedReader firstIn = reader(first);
+            JsonObject ping = JsonParser.parseString(firstIn.readLine()).getAsJsonObject();
+            JsonObject explore = JsonParser.parseString(firstIn.readLine()).getAsJsonObject();
+            JsonObject heartbeat = JsonParser.parseString(firstIn.readLine()).getAsJsonObject();
+
+            // Responses of one connection keep request order
+            assertThat(ping.get("id").getAsString()).isEqualTo("1");
+            assertThat(explore.get("id").getAsString()).isEqualTo("2");
+            assertThat(heartbeat.get("id").getAsString()).isEqualTo("3");
+            assertThat(explore.get("result").getAsJsonObject().get("completions").getAsJsonArray()).isNotEmpty();
+        }
+    }
+
+    @Test
+    void testFailedRequestIsAnsweredAndConnectionKeepsServing() throws IOException {
+        try (SocketChannel channel = connect()) {
+            BufferedWriter out = writer(channel);
+            BufferedReader in = reader(channel);
+
+            // a method that is not a string throws out of the handler
+            out.write("{\"id\":\"1\",\"method\":[]}\n");
+            out.write(request("2", "ping", new JsonObject()));
+            out.flush();
+
+            JsonObject failed = JsonParser.parseString(in.readLine()).getAsJsonObject();
+            assertThat(failed.get("id").getAsString()).isEqualTo("1");
+            assertThat(failed.has("error")).isTrue();
+            assertThat(JsonParser.parseString(in.readLine()).getAsJsonObject().get("id").getAsString()).isEqualTo("2");
+        }
+    }
+
+    @Test
+    void testOversizedRequestLineClosesConnection() throws IOException {
+        try (SocketChannel channel = connect()) {
+            OutputStream out = Channels.newOutputStream(channel);
+            byte[] chunk = new byte[16 * 1024];
+            Arrays.fill(chunk, (byte) 'x');
+            try {
+                for (int i = 0; i < 8; i++) {
+                    out.write(chunk);
+                }
+                out.flush();
+            } catch (IOException e) {
+                // the server may close while we are still writing
+            }
+
+            assertThat(reader(channel).readLine()).isNull();
+        }
+    }
+
+    private static JsonObject exploreParams(String path) {
+        JsonObject source = new JsonObject();
+        source.addProperty("name", "person");
+        source.addProperty("type", "com.dsm.mapstruct.testdata.TestClasses$Person");
+        JsonObject params = new JsonObject();
+        params.add("sources", gson.toJsonTree(new JsonObject[]{source}));
+        params.addProperty("pathExpression", path);
+        params.addProperty("isEnum", false);
+        return params;
+    }
+
+    private static String request(String id, String method, JsonObject params) {
+        JsonObject request = new JsonObject();
+        request.addProperty("id", id);
+        request.addProperty("method", method);
+        request.add("params", params);
+        return gson.toJson(request) + "\n";
+    }
+
+    private static SocketChannel connect() throws IOException {
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        channel.connect(UnixDomainSocketAddress.of(socketPath));
+        return channel;
+    }
+
+    private static BufferedWriter writer(SocketChannel channel) {
+        return new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel)));
+    }
+
+    private static BufferedReader reader(SocketChannel channel) {
+        return new BufferedReader(new InputStreamReader(Channels.newInputStream(channel)));
+    }
+}
@@ -757,4 +757,64 @@ class PathNavigatorTest {
             org.junit.jupiter.api.Assumptions.assumeTrue(false, "Builder class not available");
         }
     }
+
+    // ===== Client-Side Filtering Contract Tests =====
+
+    @Test
+    void testNavigate_ServerFilteringMarksPartialResultIncomplete() {
+        CompletionResult result = navigator.navigate(Person.class, "address.st", false);
+
+        assertThat(result.isIncomplete()).isTrue();
+        assertThat(result.resolvedPrefixPath()).isEqualTo("address.");
+        assertThat(result.completions()).extracting("name").doesNotContain("city");
+    }
+
+    @Test
+    void testNavigate_ClientFilteringReturnsFullMemberList() {
+        CompletionResult result = navigator.navigate(Person.class, "address.st", false, false, true);
+
+        assertThat(result.isIncomplete()).isFalse();
+        assertThat(result.resolvedPrefixPath()).isEqualTo("address.");
+        assertThat(result.completions()).extracting("name")
+                .contains("street", "state", "city", "zipCode", "country");
+    }
+
+    @Test
+    void testNavigate_TrailingDotResultIsComplete() {
+        CompletionResult result = navigator.navigate(Person.class, "address.", false);
+
+        assertThat(result.isIncomplete()).isFalse();
+        assertThat(result.resolvedPrefixPath()).isEqualTo("address.");
+    }
+
+    @Test
+    void testNavigateFromSources_ClientFilteringKeepsParameterPrefix() {
+        List<SourceParameter> sources = List.of(
+            new SourceParameter("person", "com.dsm.mapstruct.testdata.TestClasses$Person"),
+            new SourceParameter("order", "com.dsm.mapstruct.testdata.TestClasses$Order")
+        );
+
+        CompletionResult result = navigator.navigateFromSources(sources, "person.address.ci", false, true);
+
+        assertThat(result.isIncomplete()).isFalse();
+        assertThat(result.resolvedPrefixPath()).isEqualTo("person.address.");
+        assertThat(result.completions()).extracting("name").contains("city", "street");
+    }
+
+    @Test
+    void testNavigateFromSources_ClientFilteringReturnsAllParameterNames() {
+        List<SourceParameter> sources = List.of(
+            new SourceParameter("person", "com.dsm.mapstruct.testdata.TestClasses$Person"),
+            new SourceParameter("order", "com.dsm.mapstruct.testdata.TestClasses$Order")
+        );
+
+        CompletionResult filtered = navigator.navigateFromSources(sources, "pe", false);
+        CompletionResult unfiltered = navigator.navigateFromSources(sources, "pe", false, true);
+
+        assertThat(filtered.isIncomplete()).isTrue();
+        assertThat(filtered.completions()).extracting("name").containsExactly("person");
+        assertThat(unfiltered.isIncomplete()).isFalse();
+        assertThat(unfiltered.resolvedPrefixPath()).isEmpty();
+        assertThat(unfiltered.completions()).extracting("name").containsExactlyInAnyOrder("person", "order");
+    }
 }
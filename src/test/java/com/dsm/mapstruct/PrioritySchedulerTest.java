@@ -0,0 +1,130 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.core.schedule.PriorityScheduler;
+import com.dsm.mapstruct.core.schedule.PriorityScheduler.Priority;
+import com.dsm.mapstruct.core.usecase.WarmupUseCase;
+import com.dsm.mapstruct.core.usecase.WarmupUseCase.WarmupParams;
+import com.dsm.mapstruct.core.usecase.WarmupUseCase.WarmupResult;
+import com.dsm.mapstruct.core.usecase.helper.PathNavigator;
+import com.dsm.mapstruct.testdata.TypeGraphGenerator;
+import com.dsm.mapstruct.testdata.TypeGraphGenerator.Graph;
+import com.dsm.mapstruct.testdata.TypeGraphGenerator.Spec;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrioritySchedulerTest {
+
+    @Test
+    void testWarmupPausesWhileInteractiveRequestRuns() throws Exception {
+        Graph graph = TypeGraphGenerator.generate(Spec.of(20, 5));
+        PathNavigator navigator = new PathNavigator();
+        PriorityScheduler scheduler = new PriorityScheduler();
+
+        scheduler.interactiveStarted();
+        CompletableFuture<WarmupResult> warmup =
+                new WarmupUseCase(navigator, scheduler).execute(new WarmupParams(graph.roots(), 5));
+        Thread.sleep(100);
+        // the scan has not introspected a single class while the interactive request was in flight
+        assertThat(navigator.memberTables().stats().loads()).isZero();
+        assertThat(warmup).isNotDone();
+        scheduler.interactiveFinished();
+
+        WarmupResult result = warmup.get(30, TimeUnit.SECONDS);
+        assertThat(result.types()).isGreaterThan(graph.roots().size());
+        assertThat(scheduler.stats().batchYields()).isPositive();
+        assertThat(scheduler.stats().batchRunning()).isZero();
+    }
+
+    @Test
+    void testBackgroundWorkWaitsForBatchWork() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch batchStarted = new CountDownLatch(1);
+        AtomicBoolean backgroundRan = new AtomicBoolean();
+
+        CompletableFuture<Void> batch = scheduler.submit(Priority.BATCH, () -> {
+            batchStarted.countDown();
+            awaitQuietly(release);
+        });
+        assertThat(batchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> background = scheduler.submit(Priority.BACKGROUND, () -> {
+            scheduler.awaitTurn(Priority.BACKGROUND, Long.MAX_VALUE, () -> false);
+            backgroundRan.set(true);
+        });
+        Thread.sleep(50);
+        assertThat(backgroundRan).isFalse();
+
+        release.countDown();
+        CompletableFuture.allOf(batch, background).get(5, TimeUnit.SECONDS);
+        assertThat(backgroundRan).isTrue();
+        assertThat(scheduler.stats().backgroundYields()).isEqualTo(1);
+    }
+
+    @Test
+    void testAwaitTurnGivesUpWhenCancelledOrAfterMaxWait() {
+        PriorityScheduler scheduler = new PriorityScheduler();
+
+        assertThat(scheduler.awaitTurn(Priority.BATCH, 0, () -> false)).isTrue();
+        scheduler.interactiveStarted();
+        assertThat(scheduler.awaitTurn(Priority.BATCH, TimeUnit.MILLISECONDS.toNanos(20), () -> false)).isFalse();
+        assertThat(scheduler.awaitTurn(Priority.BACKGROUND, Long.MAX_VALUE, () -> true)).isFalse();
+        assertThat(scheduler.awaitTurn(Priority.INTERACTIVE, 0, () -> false)).isTrue();
+        scheduler.interactiveFinished();
+        assertThat(scheduler.awaitTurn(Priority.BACKGROUND, 0, () -> false)).isTrue();
+    }
+
+    @Test
+    void testWaitingTaskWakesWhenInteractiveRequestFinishes() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler();
+        CountDownLatch waiting = new CountDownLatch(1);
+
+        scheduler.interactiveStarted();
+        CompletableFuture<Boolean> turn = CompletableFuture.supplyAsync(() -> {
+            waiting.countDown();
+            return scheduler.awaitTurn(Priority.BACKGROUND, Long.MAX_VALUE, () -> false);
+        });
+        assertThat(waiting.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(50);
+        assertThat(turn).isNotDone();
+
+        scheduler.interactiveFinished();
+        assertThat(turn.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testBatchWaitIsBounded() {
+        PriorityScheduler scheduler = new PriorityScheduler();
+
+        scheduler.interactiveStarted();
+        long start = System.nanoTime();
+        scheduler.awaitBatchTurn();
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        scheduler.interactiveFinished();
+
+        // the default bound is 250 ms
+        assertThat(waitedMillis).isBetween(200L, 5_000L);
+        assertThat(scheduler.stats().batchYields()).isEqualTo(1);
+        assertThat(scheduler.stats().batchOverdue()).isEqualTo(1);
+    }
+
+    @Test
+    void testInteractiveWorkIsNotSubmitted() {
+        assertThatThrownBy(() -> new PriorityScheduler().submit(Priority.INTERACTIVE, () -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.adapter.api.ipc.metrics.RequestRecorder;
+import com.dsm.mapstruct.adapter.api.ipc.metrics.RequestRecorder.Entry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecordsRequestsWithTimestampsAndResponseHashes() throws Exception {
+        Path trace = tempDir.resolve("session.trace");
+        RequestRecorder recorder = new RequestRecorder(trace.toString());
+        long now = System.nanoTime();
+        byte[] response = "{\"id\":\"1\",\"result\":{}}\n".getBytes(StandardCharsets.UTF_8);
+
+        recorder.record(now, 7, "{\"id\":\"1\",\"method\":\"explore_path\",\"params\":{\"x\":\"a\\tb\"}}", response);
+        recorder.record(now + 5_000_000, 7, "{\"id\":\"2\",\"method\":\"stats\"}", null);
+
+        List<String> lines = awaitLines(trace, false, 3);
+        assertThat(lines.get(0)).startsWith(RequestRecorder.HEADER_PREFIX);
+        Entry first = Entry.parse(lines.get(1));
+        Entry second = Entry.parse(lines.get(2));
+        assertThat(first.sessionId()).isEqualTo(7);
+        assertThat(first.request()).isEqualTo("{\"id\":\"1\",\"method\":\"explore_path\",\"params\":{\"x\":\"a\\tb\"}}");
+        assertThat(first.responseHash()).isEqualTo(RequestRecorder.hash(response));
+        assertThat(second.responseHash()).isEqualTo(RequestRecorder.NO_HASH);
+        assertThat(second.arrivalMicros() - first.arrivalMicros()).isEqualTo(5_000);
+    }
+
+    @Test
+    void testGzipTraceIsReadableWhileRecording() throws Exception {
+        Path trace = tempDir.resolve("session.trace.gz");
+        RequestRecorder recorder = new RequestRecorder(trace.toString());
+
+        recorder.record(System.nanoTime(), 1, "{\"id\":\"1\",\"method\":\"ping\"}", null);
+
+        List<String> lines = awaitLines(trace, true, 2);
+        assertThat(Entry.parse(lines.get(1)).request()).isEqualTo("{\"id\":\"1\",\"method\":\"ping\"}");
+    }
+
+    @Test
+    void testDisabledWithoutFile() {
+        assertThat(new RequestRecorder((String) null).enabled()).isFalse();
+        assertThat(Entry.parse("# mapstruct-trace v1 2026-01-01T00:00:00Z")).isNull();
+    }
+
+    /**
+     * The recorder writes on a background thread, wait until the expected lines were flushed.
+     */
+    private static List<String> awaitLines(Path trace, boolean gzip, int expected) throws Exception {
+        List<String> lines = List.of();
+        for (int attempt = 0; attempt < 50 && lines.size() < expected; attempt++) {
+            Thread.sleep(50);
+            lines = readLines(trace, gzip);
+        }
+        return lines;
+    }
+
+    private static List<String> readLines(Path trace, boolean gzip) throws IOException {
+        byte[] bytes = Files.readAllBytes(trace);
+        if (!gzip) {
+            return new String(bytes, StandardCharsets.UTF_8).lines().toList();
+        }
+        // a trace that is still being written has no gzip trailer yet: read what was sync-flushed
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(readAvailable(in), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+
+    private static byte[] readAvailable(InputStream in) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        try {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            // truncated stream (no trailer yet): keep what was decoded
+        }
+        return out.toByteArray();
+    }
+}
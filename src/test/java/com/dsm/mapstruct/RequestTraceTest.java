@@ -0,0 +1,42 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.core.trace.RequestTrace;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestTraceTest {
+
+    @Test
+    void testUntracedThreadGetsNoop() {
+        RequestTrace trace = RequestTrace.current();
+
+        assertThat(trace).isSameAs(RequestTrace.NOOP);
+        assertThat(trace.mark()).isZero();
+        trace.span("segment", "address", 0);
+        assertThat(trace.spans()).isEmpty();
+    }
+
+    @Test
+    void testSpansAreBoundToTheTracingThread() throws InterruptedException {
+        try (RequestTrace trace = RequestTrace.start()) {
+            long start = trace.mark();
+            RequestTrace.current().span("segment", "address", start);
+
+            RequestTrace[] seenByOtherThread = new RequestTrace[1];
+            Thread other = new Thread(() -> seenByOtherThread[0] = RequestTrace.current());
+            other.start();
+            other.join();
+
+            assertThat(seenByOtherThread[0]).isSameAs(RequestTrace.NOOP);
+            assertThat(trace.spans()).singleElement()
+                    .satisfies(span -> {
+                        assertThat(span.name()).isEqualTo("segment");
+                        assertThat(span.detail()).isEqualTo("address");
+                        assertThat(span.nanos()).isNotNegative();
+                    });
+        }
+
+        assertThat(RequestTrace.current()).isSameAs(RequestTrace.NOOP);
+    }
+}
@@ -0,0 +1,73 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.adapter.api.ipc.ResponseCache;
+import com.dsm.mapstruct.adapter.api.ipc.codec.ResponseEncoding;
+import com.dsm.mapstruct.core.cache.ClassLoaderGeneration;
+import com.dsm.mapstruct.core.model.SourceParameter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+
+    private static final List<SourceParameter> SOURCES =
+            List.of(new SourceParameter("person", "com.dsm.mapstruct.testdata.TestClasses$Person"));
+
+    private static ResponseCache.Key key(String path) {
+        return new ResponseCache.Key(ClassLoaderGeneration.current(), ResponseEncoding.JSON, SOURCES, path, false, false);
+    }
+
+    @Test
+    void testHitAndMissAreCounted() {
+        ResponseCache cache = new ResponseCache(1024);
+        ResponseCache.Entry encoded = new ResponseCache.Entry("{\"path\":\"person.\"}".getBytes(), 0);
+
+        assertThat(cache.get(key("person."))).isNull();
+        cache.put(key("person."), encoded);
+
+        // an equal key built from a separately parsed request hits
+        assertThat(cache.get(key("person."))).isSameAs(encoded);
+
+        ResponseCache.Stats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.hitRate()).isEqualTo(0.5);
+        assertThat(stats.entries()).isEqualTo(1);
+        assertThat(stats.weightBytes()).isEqualTo(encoded.encodedResult().length);
+    }
+
+    @Test
+    void testKeysDifferingInModeDoNotCollide() {
+        ResponseCache cache = new ResponseCache(1024);
+        cache.put(key("person."), new ResponseCache.Entry(new byte[]{1}, 1));
+
+        long generation = ClassLoaderGeneration.current();
+        assertThat(cache.get(new ResponseCache.Key(generation, ResponseEncoding.MSGPACK, SOURCES, "person.", false, false))).isNull();
+        assertThat(cache.get(new ResponseCache.Key(generation, ResponseEncoding.JSON, SOURCES, "person.", true, false))).isNull();
+        assertThat(cache.get(new ResponseCache.Key(generation, ResponseEncoding.JSON, SOURCES, "person.", false, true))).isNull();
+    }
+
+    @Test
+    void testResultsFromAnOlderGenerationAreNotStored() {
+        ResponseCache cache = new ResponseCache(1024);
+        ResponseCache.Key stale = key("person.");
+
+        ClassLoaderGeneration.advance();
+        cache.put(stale, new ResponseCache.Entry(new byte[]{1}, 1));
+
+        assertThat(cache.stats().entries()).isZero();
+    }
+
+    @Test
+    void testWeightIsBoundedByBytes() {
+        ResponseCache cache = new ResponseCache(100);
+        for (int i = 0; i < 10; i++) {
+            cache.put(key("person.p" + i), new ResponseCache.Entry(new byte[40], 1));
+        }
+
+        assertThat(cache.stats().weightBytes()).isLessThanOrEqualTo(100);
+        assertThat(cache.stats().evictions()).isGreaterThan(0);
+    }
+}
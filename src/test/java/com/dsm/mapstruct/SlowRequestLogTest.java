@@ -0,0 +1,68 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.adapter.api.ipc.metrics.SlowRequestLog;
+import com.dsm.mapstruct.core.model.SourceParameter;
+import com.dsm.mapstruct.core.trace.RequestTrace;
+import com.dsm.mapstruct.core.usecase.ExplorePathUseCase;
+import com.dsm.mapstruct.testdata.TestClasses;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowRequestLogTest {
+
+    @Test
+    void testThreshold() {
+        SlowRequestLog slowLog = new SlowRequestLog(1_000_000);
+
+        assertThat(slowLog.isSlow(999_999)).isFalse();
+        assertThat(slowLog.isSlow(1_000_000)).isTrue();
+        assertThat(new SlowRequestLog(0).isSlow(Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void testRecordKeepsRequestSpansAndMemberCounts() {
+        String line = "{\"id\":\"3\",\"method\":\"explore_path\",\"params\":{\"sources\":[{\"name\":\"person\","
+                + "\"type\":\"" + TestClasses.Person.class.getName() + "\"}],\"pathExpression\":\"person.address.\"}}";
+        JsonObject request = JsonParser.parseString(line).getAsJsonObject();
+
+        List<RequestTrace.Span> spans;
+        int memberCount;
+        try (RequestTrace trace = RequestTrace.start()) {
+            memberCount = new ExplorePathUseCase().explore(new ExplorePathUseCase.ExplorePathParams(
+                    List.of(new SourceParameter("person", TestClasses.Person.class.getName())), "person.address.", false))
+                    .completions().size();
+            spans = trace.spans();
+        }
+
+        JsonObject record = new SlowRequestLog(1).toJson(new SlowRequestLog.SlowRequest(
+                request, "explore_path", 7, 2_000_000, "miss", memberCount, false, spans));
+
+        assertThat(record.get("request")).isEqualTo(request);
+        assertThat(record.get("method").getAsString()).isEqualTo("explore_path");
+        assertThat(record.get("elapsedNanos").getAsLong()).isEqualTo(2_000_000);
+        assertThat(record.get("cacheOutcome").getAsString()).isEqualTo("miss");
+        assertThat(record.get("memberCount").getAsInt()).isEqualTo(memberCount);
+        assertThat(record.get("membersTouched").getAsLong()).isGreaterThanOrEqualTo(memberCount);
+        assertThat(record.getAsJsonArray("spans")).anySatisfy(span ->
+                assertThat(span.getAsJsonObject().get("name").getAsString()).startsWith("memberTable."));
+    }
+
+    @Test
+    void testSpansAreOnlyCapturedWhenConfigured() {
+        assertThat(new SlowRequestLog(1).capturesSpans()).isFalse();
+        assertThat(new SlowRequestLog(1, true).capturesSpans()).isTrue();
+        assertThat(new SlowRequestLog(0, true).capturesSpans()).isFalse();
+
+        JsonObject record = new SlowRequestLog(1).toJson(new SlowRequestLog.SlowRequest(
+                new JsonObject(), "explore_path", 7, 2_000_000, "miss", 3, false, List.of()));
+
+        assertThat(record.get("memberCount").getAsInt()).isEqualTo(3);
+        assertThat(record.has("spans")).isFalse();
+        assertThat(record.has("membersTouched")).isFalse();
+    }
+}
@@ -0,0 +1,95 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.core.schedule.PriorityScheduler;
+import com.dsm.mapstruct.core.usecase.helper.PathNavigator;
+import com.dsm.mapstruct.core.usecase.helper.SpeculativeLookahead;
+import com.dsm.mapstruct.testdata.TestClasses.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpeculativeLookaheadTest {
+
+    private static final String PERSON = Person.class.getName();
+
+    @Test
+    void testPrefetchesMemberTablesOfMemberTypes() throws Exception {
+        PathNavigator navigator = new PathNavigator();
+        SpeculativeLookahead lookahead = new SpeculativeLookahead(navigator, new PriorityScheduler(), 8, 4);
+
+        lookahead.schedule(PERSON);
+
+        // Person's members lead to Address and Order
+        awaitTrue(() -> lookahead.stats().typesPrefetched() == 2);
+        long loads = navigator.memberTables().stats().loads();
+        navigator.navigate(Person.class, "address.");
+        navigator.navigate(Person.class, "orders.first.");
+        assertThat(navigator.memberTables().stats().loads()).isEqualTo(loads);
+    }
+
+    @Test
+    void testStaysWithinTypeBudget() throws Exception {
+        SpeculativeLookahead lookahead = new SpeculativeLookahead(new PathNavigator(), new PriorityScheduler(), 1, 4);
+
+        lookahead.schedule(PERSON);
+
+        awaitTrue(() -> lookahead.stats().typesPrefetched() == 1);
+        Thread.sleep(100);
+        assertThat(lookahead.stats().typesPrefetched()).isEqualTo(1);
+    }
+
+    @Test
+    void testCancelledWhileInteractiveRequestRuns() throws Exception {
+        PathNavigator navigator = new PathNavigator();
+        PriorityScheduler scheduler = new PriorityScheduler();
+        SpeculativeLookahead lookahead = new SpeculativeLookahead(navigator, scheduler, 8, 4);
+
+        scheduler.interactiveStarted();
+        lookahead.schedule(PERSON).cancel();
+        awaitTrue(() -> lookahead.stats().cancelled() == 1);
+        scheduler.interactiveFinished();
+
+        assertThat(lookahead.stats().typesPrefetched()).isZero();
+        assertThat(navigator.memberTables().stats().loads()).isZero();
+    }
+
+    @Test
+    void testGivingUpAfterWaitingIsNotCountedAsCancelled() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler();
+        SpeculativeLookahead lookahead = new SpeculativeLookahead(new PathNavigator(), scheduler, 8, 4);
+
+        // the interactive request outlasts the lookahead's 500 ms wait
+        scheduler.interactiveStarted();
+        lookahead.schedule(PERSON);
+        awaitTrue(() -> lookahead.stats().timedOut() == 1);
+        scheduler.interactiveFinished();
+
+        assertThat(lookahead.stats().cancelled()).isZero();
+        assertThat(lookahead.stats().typesPrefetched()).isZero();
+    }
+
+    @Test
+    void testDropsLookaheadsWhenQueueIsFull() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler();
+        SpeculativeLookahead lookahead = new SpeculativeLookahead(new PathNavigator(), scheduler, 8, 2);
+
+        // the lookaheads wait while an interactive request runs, so the first two are still pending
+        scheduler.interactiveStarted();
+        lookahead.schedule(PERSON);
+        lookahead.schedule(PERSON);
+        lookahead.schedule(PERSON);
+        scheduler.interactiveFinished();
+
+        assertThat(lookahead.stats().scheduled()).isEqualTo(2);
+        assertThat(lookahead.stats().dropped()).isEqualTo(1);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        for (int attempt = 0; attempt < 200 && !condition.getAsBoolean(); attempt++) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,86 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.testdata.ServerSockets;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Startup budget of the IPC server: the classes loaded until the first {@code ping} is answered.
+ *
+ * Only classes from the classpath count (the JDK's own vary between versions). Introspection, caches, Guava
+ * and logback's XML configuration must not be among them; they are initialized on first use.
+ * Raise the budget deliberately with {@code -Dmapstruct.startup.classBudget} when startup legitimately grows.
+ *
+ * The budget was measured at 373 classes (logback 189, Gson 132, this project and slf4j 24 each) with a JDK 17
+ * build of this tree, the only runnable JDK when it was set; the classes come from the jars, so the count does not
+ * depend on the JDK. The test prints the measured count so a release-25 build on CI shows its own.
+ */
+class StartupClassLoadingTest {
+
+    private static final String JAR_PATH = "target/mapstruct-path-explorer.jar";
+    private static final int CLASS_BUDGET = Integer.getInteger("mapstruct.startup.classBudget", 400);
+    private static final List<String> DEFERRED_PACKAGES = List.of(
+            "com.google.common.",
+            "org.apache.commons.",
+            "one.util.streamex.",
+            "com.dsm.mapstruct.core.usecase.",
+            "com.dsm.mapstruct.core.cache.",
+            // XML configuration (JoranException alone is referenced by logback's service provider)
+            "ch.qos.logback.core.joran.action.",
+            "ch.qos.logback.core.model.",
+            "ch.qos.logback.classic.joran.");
+
+    @Test
+    void testServerAnswersPingWithinClassLoadingBudget() throws Exception {
+        assumeTrue(new File(JAR_PATH).exists(), "Skipping startup class loading test - JAR not built yet (run 'mvn package')");
+
+        Path directory = Files.createTempDirectory("mapstruct-startup");
+        Path socketPath = directory.resolve("startup.sock");
+        Path classLog = directory.resolve("classes.log");
+        Process server = new ProcessBuilder("java", "-Xlog:class+load=info:file=" + classLog,
+                "-Dmapstruct.log.file=" + directory.resolve("server.log"),
+                "-cp", JAR_PATH, "com.dsm.mapstruct.IpcServer", socketPath.toString(), "--shutdown=never")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            assertThat(ping(socketPath, server)).contains("pong");
+        } finally {
+            server.destroy();
+            server.waitFor();
+        }
+
+        // classes defined from the classpath; JDK classes come from jrt:/ or the CDS archive
+        List<String> applicationClasses = Files.readAllLines(classLog).stream()
+                .filter(line -> line.contains(" source: file:"))
+                .map(line -> line.substring(line.indexOf("] ") + 2, line.indexOf(" source:")))
+                .toList();
+        System.out.println("Classpath classes loaded before the first ping (JDK " + Runtime.version().feature() + "): "
+                + applicationClasses.size() + " of a budget of " + CLASS_BUDGET);
+        assertThat(applicationClasses).noneMatch(name -> DEFERRED_PACKAGES.stream().anyMatch(name::startsWith));
+        assertThat(applicationClasses.size())
+                .as("classes loaded from the classpath before the first ping was answered")
+                .isLessThanOrEqualTo(CLASS_BUDGET);
+    }
+
+    private static String ping(Path socketPath, Process server) throws Exception {
+        try (SocketChannel channel = ServerSockets.awaitConnect(socketPath, server, Duration.ofSeconds(5))) {
+            channel.write(ByteBuffer.wrap("{\"id\":\"1\",\"method\":\"ping\",\"params\":{}}\n".getBytes(StandardCharsets.UTF_8)));
+            return new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8)).readLine();
+        }
+    }
+}
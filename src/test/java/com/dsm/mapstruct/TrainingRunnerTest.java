@@ -0,0 +1,41 @@
+package com.dsm.mapstruct;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs {@code --train} as a separate process: the bundled corpus must replay cleanly and the JVM must exit on its own,
+ * since that exit is what writes the AOT cache.
+ */
+class TrainingRunnerTest {
+
+    private static final String JAR_PATH = "target/mapstruct-path-explorer.jar";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"--transport=blocking", "--transport=nio"})
+    void testTrainingReplaysCorpusAndExits(String transport) throws Exception {
+        assumeTrue(new File(JAR_PATH).exists(), "Skipping training test - JAR not built yet (run 'mvn package')");
+
+        Process process = new ProcessBuilder(
+                "java",
+                "-Dmapstruct.train.rounds=2",
+                "-cp",
+                JAR_PATH,
+                "com.dsm.mapstruct.IpcServer",
+                "--train",
+                transport
+        ).redirectErrorStream(true).start();
+
+        assertThat(process.waitFor(60, TimeUnit.SECONDS)).isTrue();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(process.exitValue()).as(output).isZero();
+        assertThat(output).containsPattern("Training finished: \\d+ requests in 2 rounds");
+    }
+}
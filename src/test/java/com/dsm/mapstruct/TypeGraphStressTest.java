@@ -0,0 +1,92 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.core.model.CompletionResult;
+import com.dsm.mapstruct.core.usecase.helper.PathNavigator;
+import com.dsm.mapstruct.testdata.TypeGraphGenerator;
+import com.dsm.mapstruct.testdata.TypeGraphGenerator.Graph;
+import com.dsm.mapstruct.testdata.TypeGraphGenerator.Spec;
+import com.dsm.mapstruct.testdata.TypeGraphGenerator.Walk;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Navigates random paths through a generated type graph (DTOs, records, builders, generic bases,
+ * collections and cycles), sequentially and from several threads sharing one navigator.
+ *
+ * Tagged {@code stress} and excluded from the default build, run it with {@code -Pstress}. The default graph has
+ * 1,000 classes; compiling the graph dominates the run time. Use {@code -Dmapstruct.stress.classes=10000} for the
+ * full-scale graph.
+ */
+@Tag("stress")
+class TypeGraphStressTest {
+
+    private static final int WALKS = 2_000;
+    private static final int MAX_HOPS = 12;
+
+    private static Graph graph;
+
+    @BeforeAll
+    static void generateGraph() {
+        int classes = Integer.getInteger("mapstruct.stress.classes", 1_000);
+        int depth = 10;
+        graph = TypeGraphGenerator.generate(Spec.of(Math.max(1, classes / depth), depth).withCycleRatio(0.15));
+    }
+
+    @Test
+    void testGeneratedGraphIsReproducible() {
+        Spec spec = Spec.of(40, 5).withSeed(7);
+        Graph first = TypeGraphGenerator.generate(spec);
+        Graph second = TypeGraphGenerator.generate(spec);
+
+        assertThat(second.nodes()).isEqualTo(first.nodes());
+        assertThat(second.walk(3, MAX_HOPS, 11)).isEqualTo(first.walk(3, MAX_HOPS, 11));
+        assertThat(second.load(3)).isNotSameAs(first.load(3));
+        assertThat(second.load(3).getName()).isEqualTo(first.load(3).getName());
+    }
+
+    @Test
+    void testRandomWalksResolveToTheWalkedType() {
+        PathNavigator navigator = new PathNavigator();
+        for (int i = 0; i < WALKS; i++) {
+            assertWalk(navigator, i);
+        }
+        assertThat(navigator.memberTables().stats().entries()).isPositive();
+    }
+
+    @Test
+    void testConcurrentWalksShareOneNavigator() throws Exception {
+        PathNavigator navigator = new PathNavigator();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < WALKS; i++) {
+                int walk = i;
+                futures.add(executor.submit(() -> assertWalk(navigator, walk)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertWalk(PathNavigator navigator, int seed) {
+        int start = seed % graph.spec().width();
+        Walk walk = graph.walk(start, 1 + seed % MAX_HOPS, seed);
+
+        CompletionResult result = navigator.navigate(graph.load(start), walk.path());
+
+        assertThat(result.className()).as(walk.path()).isEqualTo(graph.className(walk.target()));
+        assertThat(result.completions()).as(walk.path()).extracting("name").contains("value0");
+    }
+}
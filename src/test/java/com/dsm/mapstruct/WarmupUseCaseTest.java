@@ -0,0 +1,73 @@
+package com.dsm.mapstruct;
+
+import com.dsm.mapstruct.core.schedule.PriorityScheduler;
+import com.dsm.mapstruct.core.usecase.WarmupUseCase;
+import com.dsm.mapstruct.core.usecase.WarmupUseCase.WarmupParams;
+import com.dsm.mapstruct.core.usecase.WarmupUseCase.WarmupResult;
+import com.dsm.mapstruct.core.usecase.helper.PathNavigator;
+import com.dsm.mapstruct.testdata.TestClasses.Address;
+import com.dsm.mapstruct.testdata.TestClasses.Country;
+import com.dsm.mapstruct.testdata.TestClasses.Order;
+import com.dsm.mapstruct.testdata.TestClasses.OrderItem;
+import com.dsm.mapstruct.testdata.TestClasses.Person;
+import com.dsm.mapstruct.testdata.TestClasses.PersonPojo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmupUseCaseTest {
+
+    interface PersonMapper {
+        PersonPojo toPojo(Person person);
+
+        List<Address> addresses(List<Person> people, int limit);
+
+        default String describe(Country country) {
+            return country.name;
+        }
+    }
+
+    @Test
+    void testDepthZeroIntrospectsOnlyTheRoots() {
+        PathNavigator navigator = new PathNavigator();
+
+        WarmupResult result = new WarmupUseCase(navigator, new PriorityScheduler()).execute(new WarmupParams(List.of(Person.class), 0)).join();
+
+        assertThat(result.types()).isEqualTo(1);
+        assertThat(navigator.memberTables().stats().loads()).isEqualTo(1);
+    }
+
+    @Test
+    void testWarmupIntrospectsTypesWithinDepth() {
+        PathNavigator navigator = new PathNavigator();
+
+        WarmupResult result = new WarmupUseCase(navigator, new PriorityScheduler()).execute(new WarmupParams(List.of(Person.class), 2)).join();
+
+        // Person -> Address, Order (List<Order>) -> Country, OrderItem
+        assertThat(result.roots()).isEqualTo(1);
+        assertThat(result.types()).isEqualTo(5);
+        assertThat(result.failed()).isZero();
+        assertThat(navigator.memberTables().stats().loads()).isEqualTo(5);
+
+        navigator.navigate(Person.class, "address.country.");
+        navigator.navigate(Order.class, "items.first.");
+        assertThat(navigator.memberTables().stats().loads()).isEqualTo(5);
+    }
+
+    @Test
+    void testNeighbourTypesResolveCollectionItemsAndSkipTerminalTypes() {
+        PathNavigator navigator = new PathNavigator();
+
+        assertThat(navigator.neighbourTypes(Person.class)).containsExactlyInAnyOrder(Address.class, Order.class);
+        assertThat(navigator.neighbourTypes(Order.class)).contains(OrderItem.class, Person.class);
+        assertThat(navigator.neighbourTypes(String.class)).isEmpty();
+    }
+
+    @Test
+    void testMapperTypesAreParameterAndReturnTypesOfAbstractMethods() {
+        assertThat(WarmupUseCase.mapperTypes(PersonMapper.class))
+                .containsExactlyInAnyOrder(PersonPojo.class, Person.class, Address.class);
+    }
+}
@@ -0,0 +1,36 @@
+package com.dsm.mapstruct.testdata;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A type whose dependencies are not on the classpath: {@value #HOLDER} has a field of type {@code missingdep.Gone},
+ * whose class file is deleted after compiling. Loading Holder's members throws {@link NoClassDefFoundError}.
+ */
+public final class MissingDependency {
+
+    public static final String HOLDER = "missingdep.Holder";
+
+    private MissingDependency() {
+    }
+
+    /**
+     * Compiles the fixture into a fresh directory, to be appended to a child process's classpath.
+     */
+    public static Path compile() throws IOException {
+        Path sources = Files.createTempDirectory("mapstruct-missing-src");
+        Path classes = Files.createTempDirectory("mapstruct-missing-classes");
+        Path gone = Files.writeString(sources.resolve("Gone.java"), "package missingdep; public class Gone {}");
+        Path holder = Files.writeString(sources.resolve("Holder.java"),
+                "package missingdep; public class Holder { public String name; public Gone gone; }");
+        int exitCode = ToolProvider.getSystemJavaCompiler()
+                .run(null, null, null, "-d", classes.toString(), gone.toString(), holder.toString());
+        if (exitCode != 0) {
+            throw new IOException("javac exited with " + exitCode);
+        }
+        Files.delete(classes.resolve("missingdep/Gone.class"));
+        return classes;
+    }
+}
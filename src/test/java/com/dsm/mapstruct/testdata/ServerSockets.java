@@ -0,0 +1,53 @@
+package com.dsm.mapstruct.testdata;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Waits for an IPC server started as a child process, for tests and the harnesses in {@code src/jmh}.
+ */
+public final class ServerSockets {
+
+    private ServerSockets() {
+    }
+
+    /**
+     * Polls every millisecond until the server accepts a connection and returns that connection, so callers timing
+     * startup can use it for their first request.
+     *
+     * @param server the server process, to fail fast if it exits; null for a server started elsewhere
+     */
+    public static SocketChannel awaitConnect(Path socket, Process server, Duration timeout)
+            throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (server != null && !server.isAlive()) {
+                throw new IOException("server exited with " + server.exitValue());
+            }
+            if (Files.exists(socket)) {
+                SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+                try {
+                    channel.connect(UnixDomainSocketAddress.of(socket));
+                    return channel;
+                } catch (IOException e) {
+                    // bound but not listening yet
+                    channel.close();
+                }
+            }
+            Thread.sleep(1);
+        }
+        throw new IOException("server did not start on " + socket);
+    }
+
+    /**
+     * Waits until the server accepts connections, without keeping one open.
+     */
+    public static void awaitServer(Path socket, Process server, Duration timeout) throws IOException, InterruptedException {
+        awaitConnect(socket, server, timeout).close();
+    }
+}
@@ -0,0 +1,363 @@
+package com.dsm.mapstruct.testdata;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates synthetic type graphs for benchmarks and stress tests.
+ *
+ * The graph has {@code depth} levels of {@code width} classes each. Every class gets scalar members and
+ * references to classes of the next level (single or {@code List}/{@code Set}); with probability
+ * {@code cycleRatio} a reference points back to a class of the same or an earlier level instead. Classes of the
+ * last level reference nothing except through cycles. The class shapes rotate through:
+ *
+ * - DTO: private fields with getters and setters
+ * - RECORD: a record with the same components
+ * - BUILDER: immutable class with getters and a static builder of fluent setters
+ * - GENERIC: DTO extending a generic base whose {@code payload} is typed by the first reference
+ *
+ * Sources are compiled in memory with {@code javax.tools} and loaded into a private class loader, so
+ * graphs for different specs never clash. The same spec always yields the same graph.
+ */
+public final class TypeGraphGenerator {
+
+    private static final String[] SCALAR_TYPES = {"String", "int", "long", "boolean", "java.math.BigDecimal", "java.time.LocalDate"};
+
+    private TypeGraphGenerator() {
+    }
+
+    public enum Shape { DTO, RECORD, BUILDER, GENERIC }
+
+    /**
+     * @param width             classes per level
+     * @param depth             number of levels
+     * @param scalarsPerClass   scalar members per class
+     * @param refsPerClass      reference members per class (the last level only keeps cyclic ones)
+     * @param collectionRatio   probability that a reference is a {@code List} or {@code Set}
+     * @param cycleRatio        probability that a reference points back instead of to the next level
+     * @param seed              random seed, the same spec always generates the same graph
+     */
+    public record Spec(int width, int depth, int scalarsPerClass, int refsPerClass,
+                       double collectionRatio, double cycleRatio, long seed) {
+
+        public Spec {
+            if (width < 1 || depth < 1) {
+                throw new IllegalArgumentException("width and depth must be positive");
+            }
+        }
+
+        public static Spec of(int width, int depth) {
+            return new Spec(width, depth, 8, 3, 0.3, 0.1, 42);
+        }
+
+        public Spec withMembers(int scalarsPerClass, int refsPerClass) {
+            return new Spec(width, depth, scalarsPerClass, refsPerClass, collectionRatio, cycleRatio, seed);
+        }
+
+        public Spec withCycleRatio(double cycleRatio) {
+            return new Spec(width, depth, scalarsPerClass, refsPerClass, collectionRatio, cycleRatio, seed);
+        }
+
+        public Spec withSeed(long seed) {
+            return new Spec(width, depth, scalarsPerClass, refsPerClass, collectionRatio, cycleRatio, seed);
+        }
+
+        public int classCount() {
+            return width * depth;
+        }
+
+        String packageName() {
+            return "generated.w" + width + "d" + depth + ".s" + Long.toHexString(seed).replace('-', 'm');
+        }
+    }
+
+    /**
+     * Reference member of a generated class.
+     *
+     * @param name       property name
+     * @param target     index of the referenced class
+     * @param collection {@code null}, {@code "List"} or {@code "Set"}
+     */
+    public record Ref(String name, int target, String collection) {
+    }
+
+    /**
+     * Generated class model.
+     */
+    public record Node(int index, String simpleName, Shape shape, List<Ref> refs) {
+    }
+
+    /**
+     * Compiled graph: the model plus the loaded classes.
+     */
+    public static final class Graph {
+
+        private final Spec spec;
+        private final List<Node> nodes;
+        private final ClassLoader classLoader;
+
+        private Graph(Spec spec, List<Node> nodes, ClassLoader classLoader) {
+            this.spec = spec;
+            this.nodes = nodes;
+            this.classLoader = classLoader;
+        }
+
+        public Spec spec() {
+            return spec;
+        }
+
+        public List<Node> nodes() {
+            return nodes;
+        }
+
+        public ClassLoader classLoader() {
+            return classLoader;
+        }
+
+        public String className(int index) {
+            return spec.packageName() + "." + nodes.get(index).simpleName();
+        }
+
+        public Class<?> load(int index) {
+            try {
+                return Class.forName(className(index), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Root classes: the first level.
+         */
+        public List<Class<?>> roots() {
+            List<Class<?>> roots = new ArrayList<>(spec.width());
+            for (int i = 0; i < spec.width(); i++) {
+                roots.add(load(i));
+            }
+            return roots;
+        }
+
+        /**
+         * Random walk of up to {@code hops} references from class {@code start}, as a MapStruct path ending with a dot.
+         * Lists are entered with {@code first} or {@code last}; sets have no sequenced accessor, so the walk does not
+         * enter them. The walk stops early at a class without traversable references.
+         */
+        public Walk walk(int start, int hops, long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            StringBuilder path = new StringBuilder();
+            int current = start;
+            for (int hop = 0; hop < hops; hop++) {
+                List<Ref> refs = nodes.get(current).refs().stream()
+                        .filter(ref -> !"Set".equals(ref.collection()))
+                        .toList();
+                if (refs.isEmpty()) {
+                    break;
+                }
+                Ref ref = refs.get(random.nextInt(refs.size()));
+                path.append(ref.name()).append('.');
+                if (ref.collection() != null) {
+                    path.append(random.nextBoolean() ? "first." : "last.");
+                }
+                current = ref.target();
+            }
+            return new Walk(path.toString(), current);
+        }
+    }
+
+    /**
+     * @param path   MapStruct path from the start class
+     * @param target index of the class the path resolves to
+     */
+    public record Walk(String path, int target) {
+    }
+
+    public static Graph generate(Spec spec) {
+        List<Node> nodes = model(spec);
+        Map<String, String> sources = new ConcurrentHashMap<>();
+        String packageName = spec.packageName();
+        sources.put(packageName + ".GenericBase", genericBase(packageName));
+        for (Node node : nodes) {
+            sources.put(packageName + "." + node.simpleName(), source(spec, nodes, node));
+        }
+        return new Graph(spec, List.copyOf(nodes), compile(sources));
+    }
+
+    private static List<Node> model(Spec spec) {
+        SplittableRandom random = new SplittableRandom(spec.seed());
+        List<Node> nodes = new ArrayList<>(spec.classCount());
+        for (int level = 0; level < spec.depth(); level++) {
+            for (int column = 0; column < spec.width(); column++) {
+                int index = level * spec.width() + column;
+                Shape shape = Shape.values()[random.nextInt(Shape.values().length)];
+                List<Ref> refs = new ArrayList<>();
+                for (int r = 0; r < spec.refsPerClass(); r++) {
+                    boolean cycle = random.nextDouble() < spec.cycleRatio();
+                    int target;
+                    if (cycle) {
+                        target = random.nextInt((level + 1) * spec.width());
+                    } else if (level + 1 < spec.depth()) {
+                        target = (level + 1) * spec.width() + random.nextInt(spec.width());
+                    } else {
+                        continue;
+                    }
+                    String collection = random.nextDouble() < spec.collectionRatio() ? (random.nextBoolean() ? "List" : "Set") : null;
+                    refs.add(new Ref("ref" + r, target, collection));
+                }
+                nodes.add(new Node(index, "L" + level + "C" + column, shape, List.copyOf(refs)));
+            }
+        }
+        return nodes;
+    }
+
+    private static String genericBase(String packageName) {
+        return "package " + packageName + ";\n"
+                + "public abstract class GenericBase<T> {\n"
+                + "    private long id;\n"
+                + "    private T payload;\n"
+                + "    public long getId() { return id; }\n"
+                + "    public void setId(long id) { this.id = id; }\n"
+                + "    public T getPayload() { return payload; }\n"
+                + "    public void setPayload(T payload) { this.payload = payload; }\n"
+                + "}\n";
+    }
+
+    private static String source(Spec spec, List<Node> nodes, Node node) {
+        List<String[]> members = new ArrayList<>();
+        for (int s = 0; s < spec.scalarsPerClass(); s++) {
+            members.add(new String[]{SCALAR_TYPES[(node.index() + s) % SCALAR_TYPES.length], "value" + s});
+        }
+        for (Ref ref : node.refs()) {
+            String target = nodes.get(ref.target()).simpleName();
+            String type = ref.collection() == null ? target : "java.util." + ref.collection() + "<" + target + ">";
+            members.add(new String[]{type, ref.name()});
+        }
+
+        StringBuilder src = new StringBuilder("package ").append(spec.packageName()).append(";\n");
+        String name = node.simpleName();
+        switch (node.shape()) {
+            case RECORD -> {
+                src.append("public record ").append(name).append('(');
+                for (int i = 0; i < members.size(); i++) {
+                    src.append(i > 0 ? ", " : "").append(members.get(i)[0]).append(' ').append(members.get(i)[1]);
+                }
+                src.append(") {\n}\n");
+            }
+            case BUILDER -> {
+                src.append("public class ").append(name).append(" {\n");
+                members.forEach(m -> src.append("    private final ").append(m[0]).append(' ').append(m[1]).append(";\n"));
+                src.append("    private ").append(name).append("(Builder b) {\n");
+                members.forEach(m -> src.append("        this.").append(m[1]).append(" = b.").append(m[1]).append(";\n"));
+                src.append("    }\n");
+                members.forEach(m -> appendGetter(src, m));
+                src.append("    public static Builder builder() { return new Builder(); }\n");
+                src.append("    public static class Builder {\n");
+                members.forEach(m -> src.append("        private ").append(m[0]).append(' ').append(m[1]).append(";\n"));
+                members.forEach(m -> src.append("        public Builder ").append(m[1]).append('(').append(m[0]).append(" v) { this.")
+                        .append(m[1]).append(" = v; return this; }\n"));
+                src.append("        public ").append(name).append(" build() { return new ").append(name).append("(this); }\n");
+                src.append("    }\n}\n");
+            }
+            case DTO, GENERIC -> {
+                src.append("public class ").append(name);
+                if (node.shape() == Shape.GENERIC) {
+                    String payload = node.refs().isEmpty() ? "String" : nodes.get(node.refs().get(0).target()).simpleName();
+                    src.append(" extends GenericBase<").append(payload).append('>');
+                }
+                src.append(" {\n");
+                members.forEach(m -> src.append("    private ").append(m[0]).append(' ').append(m[1]).append(";\n"));
+                members.forEach(m -> {
+                    appendGetter(src, m);
+                    src.append("    public void set").append(capitalize(m[1])).append('(').append(m[0]).append(" v) { this.")
+                            .append(m[1]).append(" = v; }\n");
+                });
+                src.append("}\n");
+            }
+        }
+        return src.toString();
+    }
+
+    private static void appendGetter(StringBuilder src, String[] member) {
+        String prefix = member[0].equals("boolean") ? "is" : "get";
+        src.append("    public ").append(member[0]).append(' ').append(prefix).append(capitalize(member[1]))
+                .append("() { return ").append(member[1]).append("; }\n");
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static ClassLoader compile(Map<String, String> sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("no system Java compiler, the generator needs a JDK");
+        }
+        Map<String, byte[]> classes = new ConcurrentHashMap<>();
+        List<JavaFileObject> units = new ArrayList<>(sources.size());
+        sources.forEach((name, code) -> units.add(new SourceUnit(name, code)));
+
+        StandardJavaFileManager standard = compiler.getStandardFileManager(null, null, null);
+        JavaFileManager fileManager = new ForwardingJavaFileManager<>(standard) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                       FileObject sibling) {
+                return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        return new ByteArrayOutputStream() {
+                            @Override
+                            public void close() {
+                                classes.put(className, toByteArray());
+                            }
+                        };
+                    }
+                };
+            }
+        };
+
+        StringWriter diagnostics = new StringWriter();
+        boolean success = compiler.getTask(diagnostics, fileManager, null, List.of("-proc:none", "-g:none"), null, units).call();
+        if (!success) {
+            throw new IllegalStateException("generated sources do not compile:\n" + diagnostics);
+        }
+        return new ClassLoader(TypeGraphGenerator.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                byte[] bytes = classes.get(name);
+                if (bytes == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+        };
+    }
+
+    private static final class SourceUnit extends SimpleJavaFileObject {
+
+        private final String code;
+
+        SourceUnit(String className, String code) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+}
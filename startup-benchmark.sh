@@ -0,0 +1,12 @@
+#!/usr/bin/env bash
+# Startup benchmark: time from process launch to the first answer, with and without the AOT cache
+# (JDK 25+) and for the command-line modes. Thin wrapper around StartupBenchmark (benchmarks profile),
+# see the Startup Benchmark section of the README.
+#
+# Usage: ./startup-benchmark.sh [runs]
+
+RUNS="${1:-10}"
+
+cd "$(dirname "$0")" || exit 1
+exec ./mvnw -B -Pbenchmarks -DskipTests package exec:exec@startup \
+    -Dstartup.args="--runs=$RUNS --out=target/startup-benchmark.json"